@@ -1,12 +1,9 @@
 package com.ktb.chatapp.config;
 
+import com.ktb.chatapp.service.moderation.BannedWordReloader;
 import com.ktb.chatapp.util.BannedWordChecker;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -36,14 +33,8 @@ public class BannedWordConfig {
         }
 
         Set<String> words;
-        try (BufferedReader reader =
-                new BufferedReader(
-                        new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-            words =
-                    reader.lines()
-                            .map(String::trim)
-                            .filter(line -> !line.isEmpty())
-                            .collect(Collectors.toUnmodifiableSet());
+        try {
+            words = BannedWordReloader.readWords(resource);
         } catch (IOException e) {
             throw new IllegalStateException(
                     "Failed to load banned words from " + bannedWordLocation, e);
@@ -54,6 +45,7 @@ public class BannedWordConfig {
                     "Banned word dictionary at " + bannedWordLocation + " must not be empty.");
         }
 
+        // BannedWordReloader가 이 인스턴스의 사전을 교체하므로 싱글톤 하나를 공유한다
         return new BannedWordChecker(words);
     }
 }
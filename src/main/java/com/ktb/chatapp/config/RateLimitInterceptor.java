@@ -5,6 +5,7 @@ import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.ApiErrorCode;
 import com.ktb.chatapp.dto.StandardResponse;
 import com.ktb.chatapp.service.RateLimitCheckResult;
+import com.ktb.chatapp.service.RateLimitClientId;
 import com.ktb.chatapp.service.RateLimitService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -65,25 +66,13 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     }
 
     private String generateClientId(HttpServletRequest request, RateLimit.LimitScope scope) {
-        String clientIp = getClientIpAddress(request);
-
-        switch (scope) {
-            case USER:
-                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                if (auth != null && auth.isAuthenticated() && !auth.getName().equals("anonymousUser")) {
-                    return "user:" + auth.getName();
-                }
-                return "ip:" + clientIp;
-            case IP_AND_USER:
-                Authentication userAuth = SecurityContextHolder.getContext().getAuthentication();
-                if (userAuth != null && userAuth.isAuthenticated() && !userAuth.getName().equals("anonymousUser")) {
-                    return "ip_user:" + clientIp + ":" + userAuth.getName();
-                }
-                return "ip:" + clientIp;
-            case IP:
-            default:
-                return "ip:" + clientIp;
-        }
+        String clientIp = RateLimitClientId.clientIp(
+                request.getHeader("X-Forwarded-For"), request.getHeader("X-Real-IP"), request.getRemoteAddr());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth != null && auth.isAuthenticated() && !auth.getName().equals("anonymousUser")
+                ? auth.getName()
+                : null;
+        return RateLimitClientId.of(scope, clientIp, userId);
     }
 
     private void applyRateLimitHeaders(HttpServletResponse response, RateLimitCheckResult result) {
@@ -117,18 +106,4 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 
         objectMapper.writeValue(response.getWriter(), errorResponse);
     }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
-    }
 }
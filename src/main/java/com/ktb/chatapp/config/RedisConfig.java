@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.service.message.MessageResponseCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -16,7 +18,8 @@ public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, MessageResponse> messageResponseRedisTemplate(
-            RedisConnectionFactory connectionFactory
+            RedisConnectionFactory connectionFactory,
+            @Value("${chatapp.history.codec.compress-threshold:1024}") int compressThreshold
     ) {
         RedisTemplate<String, MessageResponse> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
@@ -27,8 +30,10 @@ public class RedisConfig {
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        GenericJackson2JsonRedisSerializer serializer =
+        // 이전에 JSON으로 저장된 항목은 legacy 직렬화기로 읽고, 새 항목은 바이너리로 쓴다
+        GenericJackson2JsonRedisSerializer legacySerializer =
                 new GenericJackson2JsonRedisSerializer(mapper);
+        MessageResponseCodec serializer = new MessageResponseCodec(legacySerializer, compressThreshold);
 
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
@@ -1,15 +1,20 @@
 package com.ktb.chatapp.config;
 
+import com.corundumstudio.socketio.AckMode;
 import com.corundumstudio.socketio.AuthTokenListener;
 import com.corundumstudio.socketio.SocketConfig;
 import com.corundumstudio.socketio.SocketIOServer;
-import com.corundumstudio.socketio.annotation.SpringAnnotationScanner;
 import com.corundumstudio.socketio.namespace.Namespace;
-import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
 import com.corundumstudio.socketio.store.RedissonStoreFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ktb.chatapp.websocket.socketio.ChatDataStore;
+import com.ktb.chatapp.websocket.socketio.EncodeOnceJsonSupport;
 import com.ktb.chatapp.websocket.socketio.RedisChatDataStore;
+import com.ktb.chatapp.websocket.socketio.dispatch.DispatchingAnnotationScanner;
+import com.ktb.chatapp.websocket.socketio.dispatch.SocketEventRateLimiter;
+import com.ktb.chatapp.websocket.socketio.dispatch.SocketIOEventDispatcher;
+import com.ktb.chatapp.websocket.socketio.outbound.SlowConsumerChannelInitializer;
+import com.ktb.chatapp.websocket.socketio.outbound.SlowConsumerHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,9 +38,17 @@ public class SocketIOConfig {
     @Value("${socketio.server.port:5002}")
     private Integer port;
 
+    @Value("${chatapp.socketio.outbound.low-water-mark:65536}")
+    private int writeBufferLowWaterMark;
+
+    @Value("${chatapp.socketio.outbound.high-water-mark:262144}")
+    private int writeBufferHighWaterMark;
+
     @Bean(initMethod = "start", destroyMethod = "stop")
     public SocketIOServer socketIOServer(AuthTokenListener authTokenListener,
-                                          RedissonStoreFactory redissonStoreFactory) {
+                                          RedissonStoreFactory redissonStoreFactory,
+                                          EncodeOnceJsonSupport socketIOJsonSupport,
+                                          SlowConsumerHandler slowConsumerHandler) {
         com.corundumstudio.socketio.Configuration config = new com.corundumstudio.socketio.Configuration();
         config.setHostname(host);
         config.setPort(port);
@@ -46,6 +59,9 @@ public class SocketIOConfig {
         socketConfig.setAcceptBackLog(10);
         socketConfig.setTcpSendBufferSize(4096);
         socketConfig.setTcpReceiveBufferSize(4096);
+        // high water mark를 넘으면 채널이 unwritable이 되어 SlowConsumerHandler가 throttle한다
+        socketConfig.setWriteBufferWaterMarkLow(writeBufferLowWaterMark);
+        socketConfig.setWriteBufferWaterMarkHigh(writeBufferHighWaterMark);
         config.setSocketConfig(socketConfig);
 
         config.setOrigin("*");
@@ -55,28 +71,41 @@ public class SocketIOConfig {
         config.setPingInterval(25000);
         config.setUpgradeTimeout(10000);
 
-        config.setJsonSupport(new JacksonJsonSupport(new JavaTimeModule()));
+        // 핸들러는 가상 스레드에서 비동기로 실행되므로 ack는 DispatchingAnnotationScanner가 보낸다
+        config.setAckMode(AckMode.MANUAL);
+
+        config.setJsonSupport(socketIOJsonSupport);
         config.setStoreFactory(redissonStoreFactory); // Redis Pub/Sub for multi-instance support
 
         log.info("Socket.IO server configured on {}:{} with Redis Pub/Sub for multi-instance support", host, port);
         log.info("Boss threads: {}, Worker threads: {}", config.getBossThreads(), config.getWorkerThreads());
 
         var socketIOServer = new SocketIOServer(config);
+        socketIOServer.setPipelineFactory(new SlowConsumerChannelInitializer(slowConsumerHandler));
         socketIOServer.getNamespace(Namespace.DEFAULT_NAME).addAuthTokenListener(authTokenListener);
 
         return socketIOServer;
     }
+
+    // 브로드캐스트 payload를 한 번만 인코딩하기 위한 JsonSupport, RoomBroadcaster와 공유한다
+    @Bean
+    public EncodeOnceJsonSupport socketIOJsonSupport() {
+        return new EncodeOnceJsonSupport(new JavaTimeModule());
+    }
     
     /**
-     * SpringAnnotationScanner는 BeanPostProcessor로서
+     * DispatchingAnnotationScanner는 BeanPostProcessor로서
      * ApplicationContext 초기화 초기에 등록되고,
-     * 내부에서 사용하는 SocketIOServer는 Lazy로 지연되어
+     * 내부에서 사용하는 SocketIOServer, SocketIOEventDispatcher, SocketEventRateLimiter는 Lazy로 지연되어
      * 다른 Bean들의 초기화 과정에 간섭하지 않게 한다.
+     * 등록된 @OnEvent 핸들러는 Netty 워커 대신 가상 스레드에서 실행된다.
      */
     @Bean
     @Role(ROLE_INFRASTRUCTURE)
-    public BeanPostProcessor springAnnotationScanner(@Lazy SocketIOServer socketIOServer) {
-        return new SpringAnnotationScanner(socketIOServer);
+    public BeanPostProcessor springAnnotationScanner(@Lazy SocketIOServer socketIOServer,
+                                                     @Lazy SocketIOEventDispatcher socketIOEventDispatcher,
+                                                     @Lazy SocketEventRateLimiter socketEventRateLimiter) {
+        return new DispatchingAnnotationScanner(socketIOServer, socketIOEventDispatcher, socketEventRateLimiter);
     }
     
     // Redis 기반 저장소, 다중 인스턴스 환경 지원
@@ -17,6 +17,8 @@ public class ChatMessageRequest {
     private String content;
     private String msg;
     private Map<String, Object> fileData;
+    // 재전송 중복 방지용 클라이언트 생성 키 (선택)
+    private String clientMessageKey;
 
 
     public String getNormalizedContent() {
@@ -41,6 +43,10 @@ public class ChatMessageRequest {
         return fileData != null && !fileData.isEmpty();
     }
 
+    public boolean hasClientMessageKey() {
+        return clientMessageKey != null && !clientMessageKey.isBlank();
+    }
+
     public String getRoom() {
         if (room == null || room.trim().isEmpty()) {
             throw new IllegalArgumentException("채팅방 정보가 없습니다.");
@@ -0,0 +1,15 @@
+package com.ktb.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageDeliveredRequest {
+    private String messageId;
+    private String room;
+    // 수신한 MessageResponse.timestamp (서버 기준 시각, epoch millis)
+    private long timestamp;
+}
@@ -16,7 +16,7 @@ import lombok.NoArgsConstructor;
  * 메시지 응답 DTO.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class MessageResponse {
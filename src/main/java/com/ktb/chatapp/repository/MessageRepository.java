@@ -2,7 +2,9 @@ package com.ktb.chatapp.repository;
 
 import com.ktb.chatapp.model.Message;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -12,6 +14,22 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface MessageRepository extends MongoRepository<Message, String> {
     Page<Message> findByRoomIdAndIsDeletedAndTimestampBefore(String roomId, Boolean isDeleted, LocalDateTime timestamp, Pageable pageable);
+
+    /**
+     * timestamp 이전 메시지를 최신순으로 조회 (삭제되지 않은 메시지만)
+     * List 반환이라 Page와 달리 count 쿼리가 없다. hasMore는 limit + 1건을 읽어 판단한다.
+     */
+    @Query(value = "{ 'room': ?0, 'isDeleted': false, 'timestamp': { $lt: ?1 } }",
+            sort = "{ 'timestamp': -1, '_id': -1 }")
+    List<Message> findLatestBefore(String roomId, LocalDateTime before, Pageable pageable);
+
+    /**
+     * (timestamp, _id) 키셋 커서 이전 메시지를 최신순으로 조회 (삭제되지 않은 메시지만)
+     * 같은 timestamp의 메시지도 빠짐없이 이어서 읽을 수 있다.
+     */
+    @Query(value = "{ 'room': ?0, 'isDeleted': false, $or: [ { 'timestamp': { $lt: ?1 } }, { 'timestamp': ?1, '_id': { $lt: ?2 } } ] }",
+            sort = "{ 'timestamp': -1, '_id': -1 }")
+    List<Message> findLatestBeforeKey(String roomId, LocalDateTime timestamp, ObjectId id, Pageable pageable);
     /**
      * 특정 시간 이후의 메시지 수 카운트 (삭제되지 않은 메시지만)
      * 최근 N분간 메시지 수를 조회할 때 사용
@@ -0,0 +1,19 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import java.util.List;
+
+/**
+ * Redis 방 이력에서 읽은 페이지
+ *
+ * @param messages 커서 이전 메시지 (시간순)
+ * @param seeded   MongoDB로 채워진 뒤 끊김 없는 최신 구간으로 유지되는 이력인지 여부
+ * @param complete 방의 첫 메시지부터 모두 담고 있어 이보다 오래된 메시지가 없는지 여부
+ * @param version  페이지를 읽은 시점의 방 이력 버전 (append/seed마다 증가, 이력이 없으면 0)
+ */
+public record HistoryPage(List<MessageResponse> messages, boolean seeded, boolean complete, long version) {
+
+    public static HistoryPage empty() {
+        return new HistoryPage(List.of(), false, false, 0L);
+    }
+}
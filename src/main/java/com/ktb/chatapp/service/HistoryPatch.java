@@ -0,0 +1,53 @@
+package com.ktb.chatapp.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 캐시된 메시지 한 건의 부분 갱신
+ * null인 필드는 그대로 둔다. 값은 변경 후 전체 상태(리액션 맵, 읽은 사용자 목록)라서
+ * 같은 patch를 여러 번 적용해도 결과가 같다.
+ *
+ * @param messageId 갱신할 메시지 ID
+ * @param reactions 변경된 리액션 전체, 변경 없으면 null
+ * @param readers   변경된 읽은 사용자 전체, 변경 없으면 null
+ */
+public record HistoryPatch(
+        String messageId,
+        Map<String, Set<String>> reactions,
+        List<Message.MessageReader> readers) {
+
+    public static HistoryPatch reactions(String messageId, Map<String, Set<String>> reactions) {
+        return new HistoryPatch(messageId, reactions, null);
+    }
+
+    public static HistoryPatch readers(String messageId, List<Message.MessageReader> readers) {
+        return new HistoryPatch(messageId, null, readers);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return reactions == null && readers == null;
+    }
+
+    /**
+     * patch를 적용한 사본을 반환한다. 원본은 다른 스레드가 직렬화 중일 수 있어 바꾸지 않는다.
+     */
+    public MessageResponse applyTo(MessageResponse message) {
+        if (isEmpty()) {
+            return message;
+        }
+        MessageResponse.MessageResponseBuilder builder = message.toBuilder();
+        if (reactions != null) {
+            builder.reactions(reactions);
+        }
+        if (readers != null) {
+            builder.readers(readers);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ktb.chatapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 캐시된 방 이력 갱신
+ * MongoDB에 반영된 리액션/읽음 상태 변경을 Redis 이력과 노드 로컬 L1에 메시지 ID 기준으로 덮어써
+ * 이력 조회가 원본과 어긋나지 않게 한다. 캐시 갱신 실패는 요청을 실패시키지 않는다.
+ */
+@Slf4j
+@Component
+public class MessageHistoryPatcher {
+
+    private final MessageHistoryStore messageHistoryStore;
+    private final RecentMessageCache recentMessageCache;
+
+    private final Counter patched;
+    private final Counter failed;
+
+    public MessageHistoryPatcher(
+            MessageHistoryStore messageHistoryStore,
+            RecentMessageCache recentMessageCache,
+            MeterRegistry meterRegistry) {
+        this.messageHistoryStore = messageHistoryStore;
+        this.recentMessageCache = recentMessageCache;
+
+        this.patched = counter(meterRegistry, "patched");
+        this.failed = counter(meterRegistry, "failed");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("history.patch")
+                .description("Cached room history entries patched after reactions or read receipts")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public void apply(String roomId, List<HistoryPatch> patches) {
+        List<HistoryPatch> effective = patches.stream().filter(patch -> !patch.isEmpty()).toList();
+        if (roomId == null || effective.isEmpty()) {
+            return;
+        }
+        try {
+            patched.increment(messageHistoryStore.patch(roomId, effective));
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to patch room history - roomId: {}", roomId, e);
+        }
+        recentMessageCache.patch(roomId, effective);
+    }
+}
@@ -1,13 +1,46 @@
 package com.ktb.chatapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+/**
+ * 방별 최근 메시지 이력 (Redis)
+ * 메시지 ID를 timestamp 점수로 정렬한 sorted set과 ID → payload hash를 함께 둔다.
+ * "T 이전 N건"은 ZREVRANGEBYSCORE LIMIT + HMGET 한 번의 스크립트 호출로 읽으므로
+ * 캐시된 MAX_MESSAGES 범위 안의 스크롤은 커서 위치와 관계없이 Redis에서 끝난다.
+ * 두 키는 같은 hash tag를 써서 클러스터에서도 같은 슬롯에 놓인다.
+ *
+ * <p>Redis가 비워졌거나 처음 보는 방은 MongoDB의 최근 구간으로 한 번 채운다({@link #seed}).
+ * 채운 뒤에는 seeded 마커를 남겨, 이후 이력이 "어느 시점부터 끊김 없는 최신 구간"임을 표시한다.
+ * 마커 확인과 채우기는 한 스크립트 안에서 일어나므로 여러 노드가 동시에 채워도 한 번만 반영되고,
+ * 그 사이 append된 메시지와는 ID 기준으로 합쳐져 중복이 생기지 않는다.
+ * 마커 값은 방의 첫 메시지부터 모두 담고 있으면 {@code full}, 오래된 쪽이 잘렸으면 {@code tail}이며
+ * 읽기 스크립트가 페이지와 함께 돌려주므로 hasMore 판단에 추가 왕복이 필요 없다.
+ * 이력은 MongoDB에 저장된 방의 모든 메시지(사용자/AI/시스템)를 담는다({@link MessageHistoryWriter}).
+ * 마커가 없는 이력은 이 규칙대로 쌓였다는 보장이 없으므로 조회 측에서 신뢰하지 않는다.
+ *
+ * <p>리액션과 읽음 상태는 payload를 다시 쓰지 않고 같은 hash의 {@code <id>:reactions},
+ * {@code <id>:readers} 필드(JSON)에 최신 값을 덮어쓴다({@link #patch}). 읽기 시 payload와 함께 가져와
+ * 적용하므로 캐시된 이력만으로 최신 상태를 응답할 수 있다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,49 +49,339 @@ public class MessageHistoryStore {
     private static final int MAX_MESSAGES = 2000;
     private static final Duration TTL = Duration.ZERO;
 
+    // 가장 오래된 메시지부터 max건을 넘는 만큼 index, payload, overlay 필드에서 함께 지운다
+    private static final String TRIM = """
+            local function trim(index, payloads, max)
+                local size = redis.call('ZCARD', index)
+                if size <= max then
+                    return size, false
+                end
+                local stale = redis.call('ZRANGE', index, 0, size - max - 1)
+                redis.call('ZREMRANGEBYRANK', index, 0, size - max - 1)
+                local fields = {}
+                for _, id in ipairs(stale) do
+                    fields[#fields + 1] = id
+                    fields[#fields + 1] = id .. ':reactions'
+                    fields[#fields + 1] = id .. ':readers'
+                end
+                redis.call('HDEL', payloads, unpack(fields))
+                return max, true
+            end
+            """;
+
+    // KEYS = {index, payloads, seeded, version}, ARGV = {messageId, timestamp, message, maxMessages, ttlMillis}
+    // 추가 후 이력 버전 반환
+    private static final RedisScript<Long> APPEND = new DefaultRedisScript<>(TRIM + """
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            local size, trimmed = trim(KEYS[1], KEYS[2], tonumber(ARGV[4]))
+            if trimmed and redis.call('GET', KEYS[3]) == 'full' then
+                redis.call('SET', KEYS[3], 'tail')
+            end
+            local version = redis.call('INCR', KEYS[4])
+            if tonumber(ARGV[5]) > 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[5])
+                redis.call('PEXPIRE', KEYS[2], ARGV[5])
+                redis.call('PEXPIRE', KEYS[3], ARGV[5])
+                redis.call('PEXPIRE', KEYS[4], ARGV[5])
+            end
+            return version
+            """, Long.class);
+
+    // KEYS = {index, payloads, seeded, version}, ARGV = {beforeExclusive, limit}
+    // {마커 또는 false, 버전 또는 false, (payload, reactions, readers)...} 최신순 반환
+    private static final RedisScript<List> READ_BEFORE = new DefaultRedisScript<>("""
+            local result = { redis.call('GET', KEYS[3]), redis.call('GET', KEYS[4]) }
+            local ids = redis.call('ZREVRANGEBYSCORE', KEYS[1], ARGV[1], '-inf', 'LIMIT', 0, ARGV[2])
+            if #ids > 0 then
+                local fields = {}
+                for _, id in ipairs(ids) do
+                    fields[#fields + 1] = id
+                    fields[#fields + 1] = id .. ':reactions'
+                    fields[#fields + 1] = id .. ':readers'
+                end
+                local values = redis.call('HMGET', KEYS[2], unpack(fields))
+                for i = 1, #values do
+                    result[i + 2] = values[i]
+                end
+            end
+            return result
+            """, List.class);
+
+    // KEYS = {index, payloads, seeded, version}, ARGV = {maxMessages, ttlMillis, complete, (messageId, timestamp, message)...}
+    // 이미 채워진 이력이면 -1, 아니면 채운 뒤 이력 버전 반환. 메시지가 없으면 빈 이력에 마커만 남긴다
+    // 채우는 구간보다 오래된 기존 항목은 어떤 규칙으로 쌓였는지 알 수 없으므로 지운다
+    private static final RedisScript<Long> SEED = new DefaultRedisScript<>(TRIM + """
+            if redis.call('EXISTS', KEYS[3]) == 1 and redis.call('ZCARD', KEYS[1]) > 0 then
+                return -1
+            end
+            local oldest = nil
+            for i = 5, #ARGV, 3 do
+                local score = tonumber(ARGV[i])
+                if oldest == nil or score < oldest then
+                    oldest = score
+                end
+            end
+            if oldest ~= nil then
+                local stale = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', '(' .. oldest)
+                if #stale > 0 then
+                    local fields = {}
+                    for _, id in ipairs(stale) do
+                        fields[#fields + 1] = id
+                        fields[#fields + 1] = id .. ':reactions'
+                        fields[#fields + 1] = id .. ':readers'
+                    end
+                    redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. oldest)
+                    redis.call('HDEL', KEYS[2], unpack(fields))
+                end
+            end
+            for i = 4, #ARGV, 3 do
+                redis.call('ZADD', KEYS[1], 'NX', ARGV[i + 1], ARGV[i])
+                redis.call('HSETNX', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            local size, trimmed = trim(KEYS[1], KEYS[2], tonumber(ARGV[1]))
+            redis.call('SET', KEYS[3], (ARGV[3] == '1' and not trimmed) and 'full' or 'tail')
+            local version = redis.call('INCR', KEYS[4])
+            if tonumber(ARGV[2]) > 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+                redis.call('PEXPIRE', KEYS[3], ARGV[2])
+                redis.call('PEXPIRE', KEYS[4], ARGV[2])
+            end
+            return version
+            """, Long.class);
+
+    // KEYS = {index, payloads}, ARGV = {(messageId, reactions, readers)...}, 빈 문자열은 변경 없음
+    // 이력에 남아 있는 메시지만 갱신하고 갱신한 건수를 반환
+    private static final RedisScript<Long> PATCH = new DefaultRedisScript<>("""
+            local patched = 0
+            for i = 1, #ARGV, 3 do
+                if redis.call('ZSCORE', KEYS[1], ARGV[i]) then
+                    if ARGV[i + 1] ~= '' then
+                        redis.call('HSET', KEYS[2], ARGV[i] .. ':reactions', ARGV[i + 1])
+                    end
+                    if ARGV[i + 2] ~= '' then
+                        redis.call('HSET', KEYS[2], ARGV[i] .. ':readers', ARGV[i + 2])
+                    end
+                    patched = patched + 1
+                end
+            end
+            return patched
+            """, Long.class);
+
+    // KEYS = {index, payloads, seeded, version}
+    // 마커를 지워 다음 조회가 MongoDB에서 다시 채우게 하고 이력 버전 반환
+    private static final RedisScript<Long> UNSEED = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[3])
+            return redis.call('INCR', KEYS[4])
+            """, Long.class);
+
+    private static final RedisSerializer<Long> LONG_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private static final TypeReference<Map<String, Set<String>>> REACTIONS_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Message.MessageReader>> READERS_TYPE = new TypeReference<>() {
+    };
+
     private final RedisTemplate<String, MessageResponse> messageResponseRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private String indexKey(String roomId) {
+        return "room:{" + roomId + "}:history";
+    }
+
+    private String payloadKey(String roomId) {
+        return "room:{" + roomId + "}:history:payloads";
+    }
+
+    // 이력에 담는 메시지 규칙이 바뀌면 마커 키를 바꿔 기존 방을 새 규칙으로 다시 채운다
+    private String seededKey(String roomId) {
+        return "room:{" + roomId + "}:history:seeded:v2";
+    }
+
+    // 이력을 바꾸는 append/seed마다 1씩 올라간다. 노드 로컬 L1이 빠진 기록을 알아차리는 데 쓴다
+    private String versionKey(String roomId) {
+        return "room:{" + roomId + "}:history:version";
+    }
+
+    private List<String> keys(String roomId) {
+        return List.of(indexKey(roomId), payloadKey(roomId), seededKey(roomId), versionKey(roomId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<MessageResponse> valueSerializer() {
+        return (RedisSerializer<MessageResponse>) messageResponseRedisTemplate.getValueSerializer();
+    }
+
+    /**
+     * @return 추가 후 방 이력 버전
+     */
+    public long append(String roomId, MessageResponse message) {
+        Long version = messageResponseRedisTemplate.execute(APPEND,
+                RedisSerializer.byteArray(),
+                LONG_SERIALIZER,
+                keys(roomId),
+                bytes(message.getId()),
+                bytes(Long.toString(message.getTimestamp())),
+                valueSerializer().serialize(message),
+                bytes(Integer.toString(MAX_MESSAGES)),
+                bytes(Long.toString(TTL.toMillis())));
 
-    private String buildKey(String roomId) {
-        return "room:" + roomId + ":messages";
+        log.debug("[HISTORY] append - roomId={}, version={}, maxMessages={}, ttl={}",
+                roomId, version, MAX_MESSAGES, TTL);
+        if (version == null) {
+            throw new IllegalStateException("Room history append returned no version");
+        }
+        return version;
     }
 
+    /**
+     * MongoDB에서 읽은 최근 구간으로 이력을 채운다. 이미 채워진 이력이면 아무것도 하지 않는다.
+     *
+     * @param complete messages가 방의 첫 메시지부터 모두 담고 있으면 true
+     * @return 이번 호출로 채웠으면 true
+     */
+    public boolean seed(String roomId, List<MessageResponse> messages, boolean complete) {
+        List<byte[]> args = new ArrayList<>(3 + messages.size() * 3);
+        args.add(bytes(Integer.toString(MAX_MESSAGES)));
+        args.add(bytes(Long.toString(TTL.toMillis())));
+        args.add(bytes(complete ? "1" : "0"));
+        for (MessageResponse message : messages) {
+            args.add(bytes(message.getId()));
+            args.add(bytes(Long.toString(message.getTimestamp())));
+            args.add(valueSerializer().serialize(message));
+        }
+        Long version = messageResponseRedisTemplate.execute(SEED,
+                RedisSerializer.byteArray(),
+                LONG_SERIALIZER,
+                keys(roomId),
+                args.toArray());
+
+        boolean seeded = version != null && version >= 0;
+        log.debug("[HISTORY] seed - roomId={}, messages={}, seeded={}, version={}",
+                roomId, messages.size(), seeded, version);
+        return seeded;
+    }
 
-    public void append(String roomId, MessageResponse message) {
-        String key = buildKey(roomId);
+    /**
+     * seeded 마커를 지운다. 기록이 빠졌을 수 있는 이력을 조회 측이 신뢰하지 않고 MongoDB에서 다시 채우게 한다.
+     */
+    public void unseed(String roomId) {
+        Long version = messageResponseRedisTemplate.execute(UNSEED,
+                RedisSerializer.byteArray(),
+                LONG_SERIALIZER,
+                keys(roomId));
 
-        messageResponseRedisTemplate.opsForList().rightPush(key, message);
-        messageResponseRedisTemplate.opsForList().trim(key, -MAX_MESSAGES, -1);
+        log.debug("[HISTORY] unseed - roomId={}, version={}", roomId, version);
+    }
 
-        if (!TTL.isZero() && !TTL.isNegative()) {
-            messageResponseRedisTemplate.expire(key, TTL);
+    /**
+     * 캐시된 메시지의 리액션/읽음 상태를 ID 기준으로 갱신한다. 이력에서 이미 밀려난 메시지는 건너뛴다.
+     *
+     * @return 갱신된 메시지 수
+     */
+    public long patch(String roomId, List<HistoryPatch> patches) {
+        List<byte[]> args = new ArrayList<>(patches.size() * 3);
+        for (HistoryPatch patch : patches) {
+            if (patch.isEmpty()) {
+                continue;
+            }
+            args.add(bytes(patch.messageId()));
+            args.add(overlay(patch.reactions()));
+            args.add(overlay(patch.readers()));
+        }
+        if (args.isEmpty()) {
+            return 0L;
         }
+        Long patched = messageResponseRedisTemplate.execute(PATCH,
+                RedisSerializer.byteArray(),
+                LONG_SERIALIZER,
+                List.of(indexKey(roomId), payloadKey(roomId)),
+                args.toArray());
 
-        log.info("[HISTORY] append - roomId={}, size={}, maxMessages={}, ttl={}",
-                roomId,
-                messageResponseRedisTemplate.opsForList().size(key),
-                MAX_MESSAGES,
-                TTL);
+        log.debug("[HISTORY] patch - roomId={}, patches={}, patched={}", roomId, args.size() / 3, patched);
+        return patched != null ? patched : 0L;
     }
 
-    public List<MessageResponse> getLast(String roomId, int limit) {
-        String key = buildKey(roomId);
-        Long size = messageResponseRedisTemplate.opsForList().size(key);
-        if (size == null || size == 0) {
-            return List.of();
+    /**
+     * 가장 최근 메시지를 시간순으로 반환한다.
+     */
+    public HistoryPage getLast(String roomId, int limit) {
+        return read(roomId, "+inf", limit);
+    }
+
+    /**
+     * beforeMillis보다 이전(미포함) 메시지 중 최근 limit건을 시간순으로 반환한다.
+     */
+    public HistoryPage getBefore(String roomId, long beforeMillis, int limit) {
+        return read(roomId, "(" + beforeMillis, limit);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private HistoryPage read(String roomId, String maxScore, int limit) {
+        if (limit <= 0) {
+            return HistoryPage.empty();
+        }
+        // 앞의 두 원소는 마커/버전 문자열이라 원시 바이트로 받아 직접 역직렬화한다
+        List<byte[]> result = (List<byte[]>) messageResponseRedisTemplate.execute(
+                (RedisScript) READ_BEFORE,
+                RedisSerializer.string(),
+                (RedisSerializer) RedisSerializer.byteArray(),
+                keys(roomId),
+                maxScore,
+                Integer.toString(limit));
+        if (result == null || result.isEmpty()) {
+            return HistoryPage.empty();
         }
+        String marker = text(result.get(0));
+        String version = result.size() > 1 ? text(result.get(1)) : null;
+        List<MessageResponse> messages = new ArrayList<>(Math.max(0, result.size() - 2) / 3);
+        for (int i = result.size() - 3; i >= 2; i -= 3) {
+            MessageResponse message = result.get(i) != null ? valueSerializer().deserialize(result.get(i)) : null;
+            if (message != null) {
+                messages.add(new HistoryPatch(message.getId(),
+                        readOverlay(result.get(i + 1), REACTIONS_TYPE),
+                        readOverlay(result.get(i + 2), READERS_TYPE)).applyTo(message));
+            }
+        }
+        return new HistoryPage(messages, marker != null, "full".equals(marker),
+                version != null ? Long.parseLong(version) : 0L);
+    }
 
-        long end = size - 1;
-        long start = Math.max(end - (limit - 1), 0);
+    private static String text(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
 
-        List<MessageResponse> list =
-                messageResponseRedisTemplate.opsForList().range(key, start, end);
-        return list != null ? list : List.of();
+    private byte[] overlay(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to encode history patch", e);
+        }
     }
 
+    private <T> T readOverlay(byte[] value, TypeReference<T> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, type);
+        } catch (IOException e) {
+            // 손상된 overlay는 무시하고 payload 값을 사용한다
+            log.warn("[HISTORY] ignoring unreadable patch overlay", e);
+            return null;
+        }
+    }
 
     public long getSize(String roomId) {
-        String key = buildKey(roomId);
-        Long size = messageResponseRedisTemplate.opsForList().size(key);
+        Long size = messageResponseRedisTemplate.opsForZSet().zCard(indexKey(roomId));
         return size != null ? size : 0L;
     }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
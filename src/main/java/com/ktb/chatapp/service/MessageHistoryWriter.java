@@ -0,0 +1,62 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방 이력 기록
+ * MongoDB에 저장된 메시지를 종류(사용자/AI/시스템)와 관계없이 Redis 이력과 노드 로컬 L1에 같은 규칙으로 쌓는다.
+ * 이력 조회는 캐시된 구간을 MongoDB 없이 응답하므로 메시지를 저장하는 경로는 모두 이 기록을 거쳐야 한다.
+ * Redis 기록에 실패하면 이 노드의 L1에서 방을 내리고 Redis 이력의 seeded 마커를 지워,
+ * 빠진 메시지가 있는 이력을 어느 노드도 신뢰하지 않고 다음 조회에서 MongoDB로 다시 채우게 한다.
+ */
+@Slf4j
+@Component
+public class MessageHistoryWriter {
+
+    private final MessageHistoryStore messageHistoryStore;
+    private final RecentMessageCache recentMessageCache;
+
+    private final Counter failed;
+
+    public MessageHistoryWriter(
+            MessageHistoryStore messageHistoryStore,
+            RecentMessageCache recentMessageCache,
+            MeterRegistry meterRegistry) {
+        this.messageHistoryStore = messageHistoryStore;
+        this.recentMessageCache = recentMessageCache;
+
+        this.failed = Counter.builder("history.append.failures")
+                .description("Saved messages that could not be appended to the cached room history")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 저장이 끝난 메시지를 방 이력에 추가한다.
+     */
+    public void append(MessageResponse message) {
+        String roomId = message.getRoomId();
+        long version;
+        try {
+            version = messageHistoryStore.append(roomId, message);
+        } catch (Exception e) {
+            failed.increment();
+            recentMessageCache.evict(roomId);
+            log.warn("Failed to append room history - roomId: {}, messageId: {}", roomId, message.getId(), e);
+            unseed(roomId);
+            return;
+        }
+        recentMessageCache.record(message, version);
+    }
+
+    private void unseed(String roomId) {
+        try {
+            messageHistoryStore.unseed(roomId);
+        } catch (Exception e) {
+            log.error("Failed to unseed room history after append failure - roomId: {}", roomId, e);
+        }
+    }
+}
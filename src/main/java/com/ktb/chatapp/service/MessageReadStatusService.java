@@ -4,7 +4,9 @@ import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.repository.MessageRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Service;
 public class MessageReadStatusService {
 
     private final MessageRepository messageRepository;
+    private final MessageHistoryPatcher messageHistoryPatcher;
 
     /**
      * 메시지 읽음 상태 업데이트
@@ -37,6 +40,7 @@ public class MessageReadStatusService {
         
         try {
             List<Message> messagesToUpdate = messageRepository.findAllById(messageIds);
+            Map<String, List<HistoryPatch>> patchesByRoom = new LinkedHashMap<>();
             for (Message message : messagesToUpdate) {
                 if (message.getReaders() == null) {
                     message.setReaders(new ArrayList<>());
@@ -45,9 +49,13 @@ public class MessageReadStatusService {
                         .anyMatch(r -> r.getUserId().equals(userId));
                 if (!alreadyRead) {
                     message.getReaders().add(readerInfo);
+                    patchesByRoom.computeIfAbsent(message.getRoomId(), roomId -> new ArrayList<>())
+                            .add(HistoryPatch.readers(message.getId(), message.getReaders()));
                 }
                 messageRepository.save(message);
             }
+            // 새로 읽음 처리된 메시지만 캐시된 이력에 반영한다
+            patchesByRoom.forEach(messageHistoryPatcher::apply);
             
             log.debug("Read status updated for {} messages by user {}",
                     messagesToUpdate.size(), userId);
@@ -0,0 +1,38 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.annotation.RateLimit;
+
+/**
+ * Rate limit 클라이언트 식별자
+ * HTTP 요청(RateLimitInterceptor)과 Socket.IO 이벤트(SocketEventRateLimiter)가 같은 규칙으로 키를 만든다.
+ */
+public final class RateLimitClientId {
+
+    private RateLimitClientId() {
+    }
+
+    /**
+     * @param clientIp 클라이언트 IP ({@link #clientIp}로 구한 값)
+     * @param userId   인증된 사용자 ID, 익명이면 null
+     */
+    public static String of(RateLimit.LimitScope scope, String clientIp, String userId) {
+        return switch (scope) {
+            case USER -> userId != null ? "user:" + userId : "ip:" + clientIp;
+            case IP_AND_USER -> userId != null ? "ip_user:" + clientIp + ":" + userId : "ip:" + clientIp;
+            case IP -> "ip:" + clientIp;
+        };
+    }
+
+    /**
+     * 프록시 헤더(X-Forwarded-For의 첫 주소, X-Real-IP) 순으로 클라이언트 IP를 고르고, 없으면 연결 주소를 쓴다.
+     */
+    public static String clientIp(String xForwardedFor, String xRealIp, String remoteAddress) {
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+        return remoteAddress;
+    }
+}
@@ -1,10 +1,13 @@
 package com.ktb.chatapp.service;
 
 import com.ktb.chatapp.model.RateLimit;
+import com.ktb.chatapp.service.ratelimit.HybridRateLimiter;
+import com.ktb.chatapp.service.ratelimit.RateLimitAlgorithm;
 import com.ktb.chatapp.service.ratelimit.RateLimitStore;
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,11 +22,16 @@ import static java.net.InetAddress.*;
 public class RateLimitService {
 
     private final RateLimitStore rateLimitStore;
+    private final HybridRateLimiter hybridRateLimiter;
     @Value("${HOSTNAME:''}")
     private String hostName;
+    @Value("${chatapp.rate-limit.algorithm:sliding-window}")
+    private String algorithmName;
+    private RateLimitAlgorithm algorithm;
     
     @PostConstruct
     public void init() {
+        algorithm = RateLimitAlgorithm.from(algorithmName);
         if (!hostName.isEmpty()) {
             return;
         }
@@ -48,6 +56,17 @@ public class RateLimitService {
         Instant expiresAt = now.plus(window);
 
         try {
+            // 원자적 저장소는 클러스터 전체 한도를 적용하므로 노드 구분 없이 clientId를 그대로 쓴다
+            Optional<RateLimitCheckResult> hybrid = hybridRateLimiter.tryAcquire(_clientId, maxRequests, window);
+            if (hybrid.isPresent()) {
+                return hybrid.get();
+            }
+            Optional<RateLimitCheckResult> atomic =
+                    rateLimitStore.acquire(_clientId, maxRequests, window, algorithm);
+            if (atomic.isPresent()) {
+                return atomic.get();
+            }
+
             RateLimit rateLimit = rateLimitStore.findByClientId(actualClientId).orElse(null);
             int currentCount = rateLimit != null ? rateLimit.getCount() : 0;
 
@@ -0,0 +1,576 @@
+package com.ktb.chatapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ktb.chatapp.dto.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 노드 로컬 최근 메시지 캐시 (L1)
+ * 활성 방마다 최근 메시지를 시간순 ring buffer로 들고 있어 MessageLoader가 Redis보다 먼저 조회한다.
+ *
+ * <ul>
+ *     <li>이 노드에서 기록한 이력과 다른 노드의 기록 이벤트(Redis pub/sub)로 채워진다.</li>
+ *     <li>ring은 항상 끊김 없는 구간만 담는다. 새 방은 최신 페이지나 새 메시지로만 시작하고,
+ *         이전 페이지는 커서가 ring 안쪽을 가리킬 때만 앞쪽으로 이어 붙인다.</li>
+ *     <li>기록마다 Redis 이력 버전이 붙는다. pub/sub은 유실될 수 있으므로 버전이 건너뛰면 ring을 응답에 쓰지 않고,
+ *         빠진 버전이 끝내 오지 않으면 방을 내린다. 마지막 기록 후 max-age가 지난 ring도 다시 읽는다.</li>
+ *     <li>요청한 limit 건을 ring 안에서 모두 채울 수 있을 때만 응답하고, 아니면 Redis로 넘긴다.</li>
+ *     <li>방마다 잠금을 따로 두고, 전체 추정 메모리가 max-bytes를 넘으면 가장 오래 안 쓴 방부터 제거한다.</li>
+ *     <li>리액션/읽음 상태 변경({@link HistoryPatch})도 같은 topic으로 모든 노드의 ring에 반영한다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RecentMessageCache {
+
+    private static final String EVENT_TOPIC = "history:l1:events";
+
+    // 문자열 외 MessageResponse/UserResponse 객체, 컬렉션 헤더 등의 대략적인 고정 크기
+    private static final int MESSAGE_OVERHEAD_BYTES = 512;
+
+    // 빠진 버전을 기다리며 보관하는 최대 기록 수. 넘으면 유실로 보고 방을 내린다
+    private static final int MAX_PENDING_VERSIONS = 32;
+
+    private final boolean enabled;
+    private final int messagesPerRoom;
+    private final long maxBytes;
+    private final long maxAgeNanos;
+    private final ConcurrentHashMap<String, RoomRing> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter gaps;
+
+    private final RTopic eventTopic;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private int listenerId = -1;
+
+    public RecentMessageCache(
+            MeterRegistry meterRegistry,
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${chatapp.history.l1.enabled:true}") boolean enabled,
+            @Value("${chatapp.history.l1.messages-per-room:300}") int messagesPerRoom,
+            @Value("${chatapp.history.l1.max-bytes:67108864}") long maxBytes,
+            @Value("${chatapp.history.l1.max-age:60s}") Duration maxAge) {
+        this.enabled = enabled;
+        this.messagesPerRoom = messagesPerRoom;
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.eventTopic = redissonClient.getTopic(EVENT_TOPIC, StringCodec.INSTANCE);
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("history.l1.rooms", rooms, Map::size)
+                .description("Rooms held in the local recent message cache")
+                .register(meterRegistry);
+        Gauge.builder("history.l1.bytes", totalBytes, AtomicLong::get)
+                .description("Estimated memory used by the local recent message cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.hits = Counter.builder("history.l1.requests")
+                .description("Message page lookups against the local recent message cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("history.l1.requests")
+                .description("Message page lookups against the local recent message cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("history.l1.evictions")
+                .description("Rooms evicted from the local recent message cache")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("history.l1.gaps")
+                .description("Rooms dropped from the local recent message cache after missing history versions")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            listenerId = eventTopic.addListener(String.class, (channel, json) -> {
+                try {
+                    Event event = objectMapper.readValue(json, Event.class);
+                    // 보낸 노드는 publish 전에 이미 적용했다
+                    if (!nodeId.equals(event.origin())) {
+                        applyRemote(event);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to apply history event from topic", e);
+                }
+            });
+        } catch (Exception e) {
+            // 구독에 실패하면 다른 노드의 기록이 버전 건너뜀이나 max-age로만 반영되지만 기동은 계속한다
+            log.error("Failed to subscribe history event topic", e);
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId >= 0) {
+            eventTopic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * Redis 이력에 추가된 메시지를 기록하고 다른 노드에도 전달한다. 방이 없으면 이 메시지부터 시작하는 ring을 만든다.
+     *
+     * @param version 이 메시지를 추가한 뒤의 방 이력 버전
+     */
+    public void record(MessageResponse message, long version) {
+        if (!enabled || message == null || message.getRoomId() == null) {
+            return;
+        }
+        withRoom(message.getRoomId(), true, ring -> ring.append(message, version));
+        publish(new Event(nodeId, Event.Kind.APPEND, message.getRoomId(), version, message, null));
+    }
+
+    /**
+     * 하위 저장소에서 읽은 "beforeMillis 이전 최근 N건" 페이지(시간순)를 ring에 합친다.
+     *
+     * @param beforeMillis 페이지를 읽은 커서, 최신 페이지면 {@link Long#MAX_VALUE}
+     * @param version      페이지를 읽은 시점의 방 이력 버전
+     */
+    public void seed(String roomId, long beforeMillis, List<MessageResponse> page, long version) {
+        if (!enabled || page.isEmpty()) {
+            return;
+        }
+        boolean latest = beforeMillis == Long.MAX_VALUE;
+        withRoom(roomId, latest, ring -> {
+            if (latest && version > ring.version) {
+                // ring이 모르는 기록이 있으므로 최신 페이지로 다시 시작한다
+                ring.reset(page, version);
+            } else {
+                ring.merge(page, beforeMillis);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * beforeMillis 이전(미포함) 메시지 중 최근 limit건을 시간순으로 반환한다.
+     *
+     * @return limit건을 모두 채울 수 있으면 페이지, 아니면 empty
+     */
+    public Optional<List<MessageResponse>> getBefore(String roomId, long beforeMillis, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<MessageResponse> page = null;
+        RoomRing ring = rooms.get(roomId);
+        if (ring != null) {
+            ring.lock.lock();
+            try {
+                if (!ring.removed) {
+                    if (System.nanoTime() - ring.writtenAtNanos > maxAgeNanos) {
+                        remove(roomId, ring);
+                    } else {
+                        ring.lastAccess = accessClock.incrementAndGet();
+                        page = ring.before(beforeMillis, limit);
+                    }
+                }
+            } finally {
+                ring.lock.unlock();
+            }
+        }
+        if (page == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(page);
+    }
+
+    /**
+     * 캐시된 메시지에 patch를 적용하고 다른 노드에도 전달한다.
+     */
+    public void patch(String roomId, List<HistoryPatch> patches) {
+        if (!enabled || patches.isEmpty()) {
+            return;
+        }
+        applyPatches(roomId, patches);
+        publish(new Event(nodeId, Event.Kind.PATCH, roomId, 0L, null, patches));
+    }
+
+    /**
+     * 이 노드와 다른 노드에서 방을 내린다. 하위 이력이 통째로 다시 채워졌을 때 사용한다.
+     */
+    public void invalidate(String roomId) {
+        evict(roomId);
+        if (enabled) {
+            publish(new Event(nodeId, Event.Kind.INVALIDATE, roomId, 0L, null, null));
+        }
+    }
+
+    public boolean contains(String roomId) {
+        return enabled && roomId != null && rooms.containsKey(roomId);
+    }
+
+    /**
+     * 이 노드에서만 방을 내린다.
+     */
+    public void evict(String roomId) {
+        RoomRing ring = rooms.get(roomId);
+        if (ring == null) {
+            return;
+        }
+        ring.lock.lock();
+        try {
+            if (!ring.removed) {
+                remove(roomId, ring);
+            }
+        } finally {
+            ring.lock.unlock();
+        }
+    }
+
+    private void applyRemote(Event event) {
+        switch (event.kind()) {
+            // 다른 노드의 기록은 이미 캐시 중인 방에만 반영한다
+            case APPEND -> withRoom(event.roomId(), false, ring -> ring.append(event.message(), event.version()));
+            case PATCH -> applyPatches(event.roomId(), event.patches());
+            case INVALIDATE -> evict(event.roomId());
+        }
+    }
+
+    private void applyPatches(String roomId, List<HistoryPatch> patches) {
+        Map<String, HistoryPatch> byId = patches.stream()
+                .collect(Collectors.toMap(HistoryPatch::messageId, Function.identity(), (first, second) -> second));
+        withRoom(roomId, false, ring -> {
+            ring.patch(byId);
+            return true;
+        });
+    }
+
+    private void publish(Event event) {
+        try {
+            eventTopic.publish(objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.warn("Failed to publish history event - roomId: {}, kind: {}", event.roomId(), event.kind(), e);
+        }
+    }
+
+    /**
+     * 방의 ring을 잠근 채 갱신한다. 갱신이 false를 반환하면 ring을 믿을 수 없으므로 내린다.
+     */
+    private void withRoom(String roomId, boolean create, Predicate<RoomRing> update) {
+        while (true) {
+            RoomRing ring = create
+                    ? rooms.computeIfAbsent(roomId, id -> new RoomRing(messagesPerRoom))
+                    : rooms.get(roomId);
+            if (ring == null) {
+                return;
+            }
+            ring.lock.lock();
+            try {
+                if (ring.removed) {
+                    // 다른 스레드가 방금 내린 ring이면 다시 찾는다
+                    continue;
+                }
+                long before = ring.bytes;
+                boolean keep = update.test(ring);
+                ring.lastAccess = accessClock.incrementAndGet();
+                ring.writtenAtNanos = System.nanoTime();
+                totalBytes.addAndGet(ring.bytes - before);
+                if (!keep) {
+                    gaps.increment();
+                    remove(roomId, ring);
+                }
+            } finally {
+                ring.lock.unlock();
+            }
+            break;
+        }
+        evictOverBudget();
+    }
+
+    /**
+     * ring 잠금을 잡은 상태에서 호출한다.
+     */
+    private void remove(String roomId, RoomRing ring) {
+        ring.removed = true;
+        rooms.remove(roomId, ring);
+        totalBytes.addAndGet(-ring.bytes);
+    }
+
+    /**
+     * 예산을 넘으면 가장 오래 안 쓴 방부터 예산의 90%까지 한 번에 내린다.
+     * 한 스레드만 정리하고, 나머지는 기다리지 않고 지나간다.
+     */
+    private void evictOverBudget() {
+        if (totalBytes.get() <= maxBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = maxBytes - maxBytes / 10;
+            // lastAccess는 정렬 중에도 바뀌므로 값을 한 번 읽어 둔 사본으로 정렬한다
+            List<EvictionCandidate> candidates = new ArrayList<>(rooms.size());
+            rooms.forEach((roomId, ring) -> candidates.add(new EvictionCandidate(roomId, ring, ring.lastAccess)));
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccess));
+            for (EvictionCandidate candidate : candidates) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                RoomRing ring = candidate.ring();
+                ring.lock.lock();
+                try {
+                    if (!ring.removed) {
+                        remove(candidate.roomId(), ring);
+                        evictions.increment();
+                    }
+                } finally {
+                    ring.lock.unlock();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    static long estimateBytes(MessageResponse message) {
+        long bytes = MESSAGE_OVERHEAD_BYTES;
+        if (message.getContent() != null) {
+            bytes += message.getContent().length() * 2L;
+        }
+        if (message.getReaders() != null) {
+            bytes += message.getReaders().size() * 64L;
+        }
+        return bytes;
+    }
+
+    /**
+     * 한 방의 최근 메시지를 timestamp 오름차순으로 담는 고정 크기 ring buffer
+     * 가득 차면 가장 오래된 메시지를 덮어쓴다. 모든 변경과 조회는 lock을 잡고 한다.
+     */
+    private static final class RoomRing {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final MessageResponse[] slots;
+        private int head;
+        private int size;
+        private long bytes;
+
+        // 빠짐없이 반영한 마지막 이력 버전과, 그 뒤 버전이 비어 있어 보류 중인 기록
+        private long version;
+        private final TreeMap<Long, MessageResponse> pending = new TreeMap<>();
+
+        private volatile long lastAccess;
+        private long writtenAtNanos = System.nanoTime();
+        private boolean removed;
+
+        RoomRing(int capacity) {
+            this.slots = new MessageResponse[capacity];
+        }
+
+        private MessageResponse at(int index) {
+            return slots[(head + index) % slots.length];
+        }
+
+        private void set(int index, MessageResponse message) {
+            slots[(head + index) % slots.length] = message;
+        }
+
+        /**
+         * 이력 버전 순서대로 기록을 반영한다. 새 ring이면 이 기록부터 시작한다.
+         *
+         * @return 빠진 버전을 더 기다릴 수 없으면 false
+         */
+        boolean append(MessageResponse message, long messageVersion) {
+            if (version == 0 && size == 0) {
+                version = messageVersion - 1;
+            }
+            if (messageVersion <= version) {
+                // 이미 반영한 버전(읽은 페이지에 포함된 기록 포함)
+                return true;
+            }
+            if (messageVersion > version + 1) {
+                pending.put(messageVersion, message);
+                return pending.size() <= MAX_PENDING_VERSIONS;
+            }
+            add(message);
+            version = messageVersion;
+            MessageResponse next;
+            while ((next = pending.remove(version + 1)) != null) {
+                add(next);
+                version++;
+            }
+            return true;
+        }
+
+        /**
+         * 최신 쪽에 추가한다. 노드 간 전달 순서가 어긋난 경우 뒤에서부터 제자리를 찾는다.
+         */
+        private void add(MessageResponse message) {
+            int position = size;
+            while (position > 0 && at(position - 1).getTimestamp() > message.getTimestamp()) {
+                position--;
+            }
+            for (int i = position - 1; i >= 0 && at(i).getTimestamp() == message.getTimestamp(); i--) {
+                if (at(i).getId().equals(message.getId())) {
+                    return;
+                }
+            }
+            if (size == slots.length) {
+                if (position == 0) {
+                    // ring보다 오래된 메시지는 담지 않는다
+                    return;
+                }
+                bytes -= estimateBytes(at(0));
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+                size--;
+                position--;
+            }
+            for (int i = size; i > position; i--) {
+                set(i, at(i - 1));
+            }
+            set(position, message);
+            size++;
+            bytes += estimateBytes(message);
+        }
+
+        /**
+         * version 시점의 최신 페이지로 ring을 다시 만든다. 그 이후 버전의 보류 기록은 이어서 반영한다.
+         */
+        void reset(List<MessageResponse> page, long pageVersion) {
+            Arrays.fill(slots, null);
+            head = 0;
+            size = 0;
+            bytes = 0;
+            merge(page, Long.MAX_VALUE);
+            version = pageVersion;
+            pending.headMap(pageVersion, true).clear();
+            MessageResponse next;
+            while ((next = pending.remove(version + 1)) != null) {
+                add(next);
+                version++;
+            }
+        }
+
+        /**
+         * 시간순 페이지를 합친다. 페이지는 [첫 메시지, beforeMillis) 구간을 빠짐없이 담고 있으므로
+         * 커서가 ring의 가장 오래된 메시지 이후일 때만 합쳐도 구간이 끊기지 않는다.
+         */
+        void merge(List<MessageResponse> page, long beforeMillis) {
+            if (size == 0 ? beforeMillis != Long.MAX_VALUE : beforeMillis < at(0).getTimestamp()) {
+                return;
+            }
+            List<MessageResponse> merged = new ArrayList<>(size + page.size());
+            int i = 0;
+            int j = 0;
+            while (i < page.size() || j < size) {
+                MessageResponse next;
+                if (j >= size || (i < page.size() && page.get(i).getTimestamp() <= at(j).getTimestamp())) {
+                    next = page.get(i++);
+                } else {
+                    next = at(j++);
+                }
+                if (merged.isEmpty() || !containsTail(merged, next)) {
+                    merged.add(next);
+                }
+            }
+            int from = Math.max(0, merged.size() - slots.length);
+            Arrays.fill(slots, null);
+            head = 0;
+            size = 0;
+            bytes = 0;
+            for (MessageResponse message : merged.subList(from, merged.size())) {
+                slots[size++] = message;
+                bytes += estimateBytes(message);
+            }
+        }
+
+        private static boolean containsTail(List<MessageResponse> merged, MessageResponse candidate) {
+            for (int k = merged.size() - 1; k >= 0 && merged.get(k).getTimestamp() == candidate.getTimestamp(); k--) {
+                if (merged.get(k).getId().equals(candidate.getId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void patch(Map<String, HistoryPatch> patches) {
+            for (int i = 0; i < size; i++) {
+                MessageResponse message = at(i);
+                HistoryPatch patch = patches.get(message.getId());
+                if (patch != null) {
+                    MessageResponse patched = patch.applyTo(message);
+                    bytes += estimateBytes(patched) - estimateBytes(message);
+                    set(i, patched);
+                }
+            }
+        }
+
+        /**
+         * @return limit건을 채울 수 있으면 시간순 페이지, 빠진 버전이 있거나 모자라면 null
+         */
+        List<MessageResponse> before(long beforeMillis, int limit) {
+            if (!pending.isEmpty()) {
+                return null;
+            }
+            int end = size;
+            while (end > 0 && at(end - 1).getTimestamp() >= beforeMillis) {
+                end--;
+            }
+            if (end < limit) {
+                return null;
+            }
+            List<MessageResponse> page = new ArrayList<>(limit);
+            for (int i = end - limit; i < end; i++) {
+                page.add(at(i));
+            }
+            return page;
+        }
+    }
+
+    private record EvictionCandidate(String roomId, RoomRing ring, long lastAccess) {
+    }
+
+    /**
+     * 노드 간 L1 기록 이벤트
+     */
+    private record Event(
+            String origin,
+            Kind kind,
+            String roomId,
+            long version,
+            MessageResponse message,
+            List<HistoryPatch> patches) {
+
+        private enum Kind {
+            APPEND,
+            PATCH,
+            INVALIDATE
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.ktb.chatapp.service;
 
 import com.ktb.chatapp.model.Session;
+import com.ktb.chatapp.service.session.SessionActivity;
+import com.ktb.chatapp.service.session.SessionActivityBuffer;
 import com.ktb.chatapp.service.session.SessionStore;
+import com.ktb.chatapp.service.session.SessionTouchResult;
+import com.ktb.chatapp.service.session.SessionValidationCache;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +22,8 @@ import static com.ktb.chatapp.model.Session.SESSION_TTL;
 public class SessionService {
 
     private final SessionStore sessionStore;
+    private final SessionActivityBuffer activityBuffer;
+    private final SessionValidationCache validationCache;
     public static final long SESSION_TTL_SEC = DurationStyle.detectAndParse(SESSION_TTL).getSeconds();
     private static final long SESSION_TIMEOUT = SESSION_TTL_SEC * 1000;
 
@@ -52,6 +59,8 @@ public class SessionService {
                     .build();
 
             session = sessionStore.save(session);
+            activityBuffer.remember(session);
+            validationCache.put(session, now);
             
             SessionData sessionData = toSessionData(session);
 
@@ -74,31 +83,40 @@ public class SessionService {
                 return SessionValidationResult.invalid("INVALID_PARAMETERS", "유효하지 않은 세션 파라미터");
             }
 
-            Session session = sessionStore.findByUserId(userId).orElse(null);
-            
-            if (session == null) {
-                log.warn("No session found for userId: {}", userId);
-                return SessionValidationResult.invalid("INVALID_SESSION", "세션을 찾을 수 없습니다.");
-            }
-
-            if (!sessionId.equals(session.getSessionId())) {
-                log.warn("Session ID mismatch for userId: {}. Provided: {}, Expected: {}", userId, sessionId, session.getSessionId());
-                return SessionValidationResult.invalid("INVALID_SESSION", "잘못된 세션 ID입니다.");
-            }
-
-            // Check if session has timed out
+            // 수 초 안에 저장소에서 검증된 세션은 로컬 캐시로 검증하고 활동 시각은 따로 기록한다
             long now = Instant.now().toEpochMilli();
-            if (now - session.getLastActivity() > SESSION_TIMEOUT) {
-                log.warn("Session timed out for userId: {}, sessionId: {}", userId, sessionId);
-                removeSession(userId, sessionId);
-                return SessionValidationResult.invalid("SESSION_EXPIRED", "세션이 만료되었습니다.");
+            Session cached = validationCache.get(userId, sessionId, now).orElse(null);
+            if (cached != null) {
+                recordCachedActivity(cached, now);
+                SessionData sessionData = toSessionData(cached);
+                sessionData.setLastActivity(now);
+                return SessionValidationResult.valid(sessionData);
             }
 
-            // Update last activity
-            session.setLastActivity(now);
-            session.setExpiresAt(Instant.now().plusSeconds(SESSION_TTL_SEC));
-            session = sessionStore.save(session);
+            // 조회, 세션 ID 비교, 활동 시각 갱신을 저장소에서 한 번에 처리한다
+            SessionTouchResult touched = sessionStore.validateAndTouch(userId, sessionId, now, SESSION_TIMEOUT);
+
+            switch (touched.status()) {
+                case NOT_FOUND -> {
+                    log.warn("No session found for userId: {}", userId);
+                    return SessionValidationResult.invalid("INVALID_SESSION", "세션을 찾을 수 없습니다.");
+                }
+                case MISMATCH -> {
+                    log.warn("Session ID mismatch for userId: {}. Provided: {}, Expected: {}", userId, sessionId, touched.session().getSessionId());
+                    return SessionValidationResult.invalid("INVALID_SESSION", "잘못된 세션 ID입니다.");
+                }
+                case EXPIRED -> {
+                    log.warn("Session timed out for userId: {}, sessionId: {}", userId, sessionId);
+                    removeSession(userId, sessionId);
+                    return SessionValidationResult.invalid("SESSION_EXPIRED", "세션이 만료되었습니다.");
+                }
+                default -> {
+                }
+            }
 
+            Session session = touched.session();
+            activityBuffer.remember(session);
+            validationCache.put(session, now);
             SessionData sessionData = toSessionData(session);
             return SessionValidationResult.valid(sessionData);
 
@@ -108,6 +126,26 @@ public class SessionService {
         }
     }
 
+    /**
+     * 캐시로 검증된 세션의 활동 시각을 버퍼에 모은다. 버퍼에서 밀려났으면 다시 넣고,
+     * 쓰기 병합이 꺼져 있으면 저장소에 바로 반영한다. 기록 실패는 검증 결과에 영향을 주지 않는다.
+     */
+    private void recordCachedActivity(Session session, long now) {
+        String userId = session.getUserId();
+        if (activityBuffer.recordActivity(userId, now)) {
+            return;
+        }
+        activityBuffer.remember(session);
+        if (activityBuffer.recordActivity(userId, now)) {
+            return;
+        }
+        try {
+            sessionStore.touchAll(List.of(new SessionActivity(userId, session.getSessionId(), now)), SESSION_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Failed to record session activity for userId: {}", userId, e);
+        }
+    }
+
     public void updateLastActivity(String userId) {
         try {
             if (userId == null) {
@@ -115,6 +153,10 @@ public class SessionService {
                 return;
             }
 
+            if (activityBuffer.recordActivity(userId, Instant.now().toEpochMilli())) {
+                return;
+            }
+
             Session session = sessionStore.findByUserId(userId).orElse(null);
             if (session == null) {
                 log.debug("No session found to update last activity for user: {}", userId);
@@ -137,6 +179,8 @@ public class SessionService {
             } else {
                 sessionStore.deleteAll(userId);
             }
+            // 저장소에서 지운 뒤 폐기를 알려야 다른 노드가 삭제 전 상태를 다시 캐시하지 않는다
+            validationCache.revoke(userId);
         } catch (Exception e) {
             log.error("Session removal error for userId: {}, sessionId: {}", userId, sessionId, e);
             throw new RuntimeException("세션 삭제 중 오류가 발생했습니다.", e);
@@ -146,6 +190,7 @@ public class SessionService {
     public void removeAllUserSessions(String userId) {
         try {
             sessionStore.deleteAll(userId);
+            validationCache.revoke(userId);
         } catch (Exception e) {
             log.error("Remove all sessions error for userId: {}", userId, e);
             throw new RuntimeException("모든 세션 삭제 중 오류가 발생했습니다.", e);
@@ -164,6 +209,10 @@ public class SessionService {
                 return null;
             }
 
+            // 아직 flush되지 않은 이 노드의 활동 시각을 반영한다
+            activityBuffer.lastActivity(userId, session.getSessionId())
+                    .filter(lastActivity -> lastActivity > session.getLastActivity())
+                    .ifPresent(session::setLastActivity);
             return toSessionData(session);
         } catch (Exception e) {
             log.error("Get active session error for userId: {}", userId, e);
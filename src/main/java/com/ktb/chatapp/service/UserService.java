@@ -3,6 +3,7 @@ package com.ktb.chatapp.service;
 import com.ktb.chatapp.dto.*;
 import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.cache.NearCache;
 import com.ktb.chatapp.util.FileUtil;
 import com.ktb.chatapp.util.image.ImageUtils;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +30,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final ImageUtils imageUtils;
+    private final NearCache nearCache;
 
     @Value("${app.profile.image.max-size:5242880}") // 5MB
     private long maxProfileImageSize;
@@ -60,6 +62,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User updatedUser = userRepository.save(user);
+        nearCache.evictUser(updatedUser.getId());
         log.info("사용자 프로필 업데이트 완료 - ID: {}, Name: {}", user.getId(), request.getName());
 
         return UserResponse.fromWithPresigned(updatedUser, imageUtils.generatePresignedUrlWithKey(user.getProfileImageKey(), Duration.ofHours(1)));
@@ -96,6 +99,7 @@ public class UserService {
         user.setProfileImageKey(imageKey);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        nearCache.evictUser(user.getId());
 
         log.info("프로필 이미지 업로드 완료 - User ID: {}, File: {}", user.getId(), presignedImageUrl);
 
@@ -218,6 +222,7 @@ public class UserService {
         // DB에서 이미지 key 삭제
         user.deleteProfileImage();
         userRepository.save(user);
+        nearCache.evictUser(user.getId());
     }
 //    public void deleteProfileImage(String email) {
 //        User user = userRepository.findByEmail(email.toLowerCase())
@@ -245,6 +250,7 @@ public class UserService {
         }
 
         userRepository.delete(user);
+        nearCache.evictUser(user.getId());
         log.info("회원 탈퇴 완료 - User ID: {}", user.getId());
     }
 }
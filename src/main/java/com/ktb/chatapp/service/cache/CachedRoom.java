@@ -0,0 +1,26 @@
+package com.ktb.chatapp.service.cache;
+
+import com.ktb.chatapp.model.Room;
+import java.util.Set;
+
+/**
+ * NearCache에 보관하는 Room 스냅샷
+ * 소켓 핫패스의 멤버십 확인에 필요한 필드만 불변으로 유지한다.
+ *
+ * @param id room id
+ * @param participantIds 참가자 ID 목록
+ * @param hasPassword 비밀번호 방 여부
+ */
+public record CachedRoom(String id, Set<String> participantIds, boolean hasPassword) {
+
+    public static CachedRoom from(Room room) {
+        return new CachedRoom(
+                room.getId(),
+                room.getParticipantIds() != null ? Set.copyOf(room.getParticipantIds()) : Set.of(),
+                room.isHasPassword());
+    }
+
+    public boolean hasParticipant(String userId) {
+        return participantIds.contains(userId);
+    }
+}
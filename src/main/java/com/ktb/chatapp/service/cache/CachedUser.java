@@ -0,0 +1,29 @@
+package com.ktb.chatapp.service.cache;
+
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.User;
+
+/**
+ * NearCache에 보관하는 User 스냅샷
+ *
+ * @param id user id
+ * @param name 사용자 이름
+ * @param email 사용자 이메일
+ * @param profileImageKey 프로필 이미지 S3 key
+ */
+public record CachedUser(String id, String name, String email, String profileImageKey) {
+
+    public static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getProfileImageKey());
+    }
+
+    // UserResponse.from(User)와 동일하게 presigned URL 없이 기본 정보만 반환
+    public UserResponse toUserResponse() {
+        return UserResponse.builder()
+                .id(id)
+                .name(name)
+                .email(email)
+                .presignedProfileImage(profileImageKey)
+                .build();
+    }
+}
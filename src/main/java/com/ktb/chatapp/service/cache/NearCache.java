@@ -0,0 +1,156 @@
+package com.ktb.chatapp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ktb.chatapp.repository.RoomRepository;
+import com.ktb.chatapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Room/User 문서의 노드 로컬 캐시
+ * 소켓 이벤트마다 반복되는 멤버십 확인과 발신자 조회를 MongoDB 대신 메모리에서 처리한다.
+ * TTL과 최대 크기로 제한되며, 변경 시 Redis pub/sub으로 다른 노드의 항목도 무효화한다.
+ */
+@Slf4j
+@Component
+public class NearCache {
+
+    private static final String INVALIDATION_TOPIC = "nearcache:invalidate";
+    private static final String ROOM_PREFIX = "room:";
+    private static final String USER_PREFIX = "user:";
+
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final RTopic invalidationTopic;
+    private final Cache<String, CachedRoom> rooms;
+    private final Cache<String, CachedUser> users;
+    private final Counter remoteInvalidations;
+
+    private int listenerId = -1;
+
+    public NearCache(
+            RoomRepository roomRepository,
+            UserRepository userRepository,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.near-cache.room.ttl:30s}") Duration roomTtl,
+            @Value("${chatapp.near-cache.room.max-size:10000}") long roomMaxSize,
+            @Value("${chatapp.near-cache.user.ttl:60s}") Duration userTtl,
+            @Value("${chatapp.near-cache.user.max-size:50000}") long userMaxSize) {
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+        this.rooms = Caffeine.newBuilder()
+                .expireAfterWrite(roomTtl)
+                .maximumSize(roomMaxSize)
+                .recordStats()
+                .build();
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(userTtl)
+                .maximumSize(userMaxSize)
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions 등 노출
+        CaffeineCacheMetrics.monitor(meterRegistry, rooms, "nearcache.rooms");
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "nearcache.users");
+        this.remoteInvalidations = Counter.builder("nearcache.invalidations.received")
+                .description("Near-cache invalidations received over Redis pub/sub")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        try {
+            listenerId = invalidationTopic.addListener(String.class, (channel, key) -> {
+                remoteInvalidations.increment();
+                invalidateLocal(key);
+            });
+        } catch (Exception e) {
+            // Redis 장애 시에도 TTL로 수렴하므로 기동은 계속한다
+            log.error("Failed to subscribe near-cache invalidation topic", e);
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId >= 0) {
+            invalidationTopic.removeListener(listenerId);
+        }
+    }
+
+    public Optional<CachedRoom> findRoom(String roomId) {
+        if (roomId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(rooms.get(roomId,
+                id -> roomRepository.findById(id).map(CachedRoom::from).orElse(null)));
+    }
+
+    public Optional<CachedUser> findUser(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(users.get(userId,
+                id -> userRepository.findById(id).map(CachedUser::from).orElse(null)));
+    }
+
+    /**
+     * 여러 사용자를 조회한다. 캐시에 없는 항목은 findAllById 한 번으로 채운다.
+     *
+     * @return userId → CachedUser (존재하지 않는 사용자는 제외)
+     */
+    public Map<String, CachedUser> findUsers(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        return users.getAll(userIds, missing -> {
+            Map<String, CachedUser> loaded = new HashMap<>();
+            userRepository.findAllById(List.copyOf(missing))
+                    .forEach(user -> loaded.put(user.getId(), CachedUser.from(user)));
+            return loaded;
+        });
+    }
+
+    public void evictRoom(String roomId) {
+        rooms.invalidate(roomId);
+        publish(ROOM_PREFIX + roomId);
+    }
+
+    public void evictUser(String userId) {
+        users.invalidate(userId);
+        publish(USER_PREFIX + userId);
+    }
+
+    private void publish(String key) {
+        try {
+            invalidationTopic.publish(key);
+        } catch (Exception e) {
+            log.warn("Failed to publish near-cache invalidation - key: {}", key, e);
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        if (key.startsWith(ROOM_PREFIX)) {
+            rooms.invalidate(key.substring(ROOM_PREFIX.length()));
+        } else if (key.startsWith(USER_PREFIX)) {
+            users.invalidate(key.substring(USER_PREFIX.length()));
+        }
+    }
+}
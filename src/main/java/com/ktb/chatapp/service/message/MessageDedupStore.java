@@ -0,0 +1,127 @@
+package com.ktb.chatapp.service.message;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+/**
+ * 클라이언트 메시지 키 기반 중복 전송 방지 인덱스
+ * (roomId, userId, clientMessageKey) 키를 SET NX로 선점하므로 재시도가 다른 노드로 들어와도 한 번만 저장/브로드캐스트된다.
+ *
+ * <ul>
+ *     <li>선점 시에는 처리 중 마커만 짧은 TTL(pending-ttl)로 기록한다.</li>
+ *     <li>저장이 끝난 뒤에만 마커를 최초 MessageResponse로 바꾸고 TTL을 늘린다.
+ *         그 전에 들어온 재시도는 저장되지 않은 메시지의 ack를 받지 않는다.</li>
+ *     <li>저장에 실패하면 선점을 해제해 재시도가 다시 처리되도록 한다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MessageDedupStore {
+
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private static final byte[] PENDING = "pending".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, MessageResponse> messageResponseRedisTemplate;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+
+    public MessageDedupStore(
+            RedisTemplate<String, MessageResponse> messageResponseRedisTemplate,
+            @Value("${chatapp.message.dedup.ttl:5m}") Duration ttl,
+            @Value("${chatapp.message.dedup.pending-ttl:30s}") Duration pendingTtl) {
+        this.messageResponseRedisTemplate = messageResponseRedisTemplate;
+        this.ttl = ttl;
+        this.pendingTtl = pendingTtl;
+    }
+
+    private String buildKey(String roomId, String userId, String clientMessageKey) {
+        return "message:dedup:" + roomId + ":" + userId + ":" + clientMessageKey;
+    }
+
+    /**
+     * 선점 결과
+     *
+     * @param state    선점 상태
+     * @param existing 이미 저장이 끝난 같은 키의 메시지 ({@link State#COMPLETED}일 때만)
+     */
+    public record Claim(State state, MessageResponse existing) {
+
+        public enum State {
+            /** 이번 요청이 선점했다. 저장 후 {@link #complete} 또는 {@link #release}를 호출해야 한다. */
+            CLAIMED,
+            /** 같은 키의 요청이 아직 처리 중이다. */
+            PENDING,
+            /** 같은 키의 메시지가 이미 저장되었다. */
+            COMPLETED
+        }
+
+        static Claim claimed() {
+            return new Claim(State.CLAIMED, null);
+        }
+    }
+
+    /**
+     * 메시지 키를 처리 중 상태로 선점한다.
+     */
+    public Claim claim(String roomId, String userId, String clientMessageKey) {
+        if (clientMessageKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("메시지 키가 너무 깁니다.");
+        }
+        byte[] key = buildKey(roomId, userId, clientMessageKey).getBytes(StandardCharsets.UTF_8);
+        try {
+            Boolean claimed = messageResponseRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().set(key, PENDING,
+                            Expiration.from(pendingTtl), RedisStringCommands.SetOption.SET_IF_ABSENT));
+            if (Boolean.TRUE.equals(claimed)) {
+                return Claim.claimed();
+            }
+            byte[] value = messageResponseRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(key));
+            if (value == null || Arrays.equals(value, PENDING)) {
+                // 그 사이 해제/만료된 경우도 처리 중으로 보고 클라이언트 재시도에 맡긴다
+                return new Claim(Claim.State.PENDING, null);
+            }
+            MessageResponse existing = (MessageResponse) messageResponseRedisTemplate.getValueSerializer()
+                    .deserialize(value);
+            return new Claim(Claim.State.COMPLETED, existing);
+        } catch (Exception e) {
+            // 중복 방지보다 전송 가용성을 우선한다
+            log.warn("Message dedup claim failed, sending without dedup - roomId: {}, userId: {}",
+                    roomId, userId, e);
+            return Claim.claimed();
+        }
+    }
+
+    /**
+     * 저장이 끝난 메시지를 기록해 이후 재시도가 같은 응답을 받게 한다.
+     */
+    public void complete(String roomId, String userId, String clientMessageKey, MessageResponse response) {
+        try {
+            messageResponseRedisTemplate.opsForValue()
+                    .set(buildKey(roomId, userId, clientMessageKey), response, ttl);
+        } catch (Exception e) {
+            log.warn("Message dedup complete failed - roomId: {}, userId: {}", roomId, userId, e);
+        }
+    }
+
+    /**
+     * 저장에 실패한 경우 선점을 해제해 재시도가 다시 처리되도록 한다.
+     */
+    public void release(String roomId, String userId, String clientMessageKey) {
+        try {
+            messageResponseRedisTemplate.delete(buildKey(roomId, userId, clientMessageKey));
+        } catch (Exception e) {
+            log.warn("Message dedup release failed - roomId: {}, userId: {}", roomId, userId, e);
+        }
+    }
+}
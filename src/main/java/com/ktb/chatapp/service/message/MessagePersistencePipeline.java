@@ -0,0 +1,285 @@
+package com.ktb.chatapp.service.message;
+
+import com.ktb.chatapp.model.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 메시지 write-behind 영속화 파이프라인
+ * 메시지를 큐에 적재하고 ObjectId를 클라이언트 측에서 미리 발급한 뒤,
+ * 크기(batch-size) 또는 시간(flush-interval) 윈도우 단위로 insertMany 하여 그룹 커밋한다.
+ *
+ * <ul>
+ *     <li>DURABLE: 배치가 MongoDB에 기록된 뒤 호출자에게 반환한다.</li>
+ *     <li>ENQUEUE: 큐 적재 직후 반환한다. 저장 실패는 로그와 메트릭으로만 확인 가능하다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MessagePersistencePipeline {
+
+    public enum AckMode {
+        DURABLE,
+        ENQUEUE
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final AckMode ackMode;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration durableAckTimeout;
+    private final BlockingQueue<PendingWrite> queue;
+
+    private final Timer flushTimer;
+    private final Timer commitLatencyTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter failureCounter;
+    private final Counter overflowCounter;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public MessagePersistencePipeline(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.message.persist.ack-mode:durable}") String ackMode,
+            @Value("${chatapp.message.persist.batch-size:128}") int batchSize,
+            @Value("${chatapp.message.persist.flush-interval-ms:5}") long flushIntervalMs,
+            @Value("${chatapp.message.persist.queue-capacity:10000}") int queueCapacity,
+            @Value("${chatapp.message.persist.durable-ack-timeout-ms:5000}") long durableAckTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.ackMode = AckMode.valueOf(ackMode.trim().toUpperCase(Locale.ROOT));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Duration.ofMillis(Math.max(0, flushIntervalMs));
+        this.durableAckTimeout = Duration.ofMillis(durableAckTimeoutMs);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("chat.messages.persist.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting in the write-behind queue")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("chat.messages.persist.flush.time")
+                .description("Time spent writing one batch to MongoDB")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitLatencyTimer = Timer.builder("chat.messages.persist.commit.latency")
+                .description("Time from enqueue until the message is durable")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("chat.messages.persist.batch.size")
+                .description("Number of messages per flushed batch")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("chat.messages.persist.failures")
+                .description("Messages that could not be persisted")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("chat.messages.persist.overflow")
+                .description("Messages written inline because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("message-persist-flusher")
+                .daemon(true)
+                .start(this::runFlushLoop);
+        log.info("Message persistence pipeline started - ackMode: {}, batchSize: {}, flushInterval: {}",
+                ackMode, batchSize, flushInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(Duration.ofSeconds(10));
+        }
+        int remaining = drainRemaining();
+        log.info("Message persistence pipeline stopped - written inline: {}", remaining);
+    }
+
+    /**
+     * 메시지를 저장한다. ID가 없으면 ObjectId를 미리 발급한다.
+     * ack 모드에 따라 배치 기록 완료 또는 큐 적재 직후 반환한다.
+     *
+     * @param message 저장할 메시지
+     * @return ID가 채워진 메시지
+     */
+    public Message persist(Message message) {
+        CompletableFuture<Message> future = enqueue(message);
+        if (ackMode == AckMode.ENQUEUE) {
+            return message;
+        }
+        return awaitDurable(future);
+    }
+
+    /**
+     * {@link #enqueue}로 적재한 메시지를 ack 모드에 맞게 기다린다.
+     * 순서가 필요한 적재는 짧은 구간 안에서 하고, 기록 대기는 그 밖에서 하도록 나눠 쓸 때 사용한다.
+     */
+    public void awaitAck(CompletableFuture<Message> future) {
+        if (ackMode == AckMode.DURABLE) {
+            awaitDurable(future);
+        }
+    }
+
+    private Message awaitDurable(CompletableFuture<Message> future) {
+        try {
+            return future.get(durableAckTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("메시지 저장이 중단되었습니다.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("메시지 저장에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 메시지를 큐에 적재하고 기록 완료 시 완료되는 future를 반환한다.
+     * 큐가 가득 찬 경우 호출 스레드에서 바로 기록한다.
+     */
+    public CompletableFuture<Message> enqueue(Message message) {
+        if (message.getId() == null) {
+            message.setId(new ObjectId().toHexString());
+        }
+
+        PendingWrite pending = new PendingWrite(message, new CompletableFuture<>(), System.nanoTime());
+        if (!running || !queue.offer(pending)) {
+            overflowCounter.increment();
+            writeOne(pending);
+        } else if (!running) {
+            // stop()의 정리와 엇갈려 큐에 남았을 수 있으므로 직접 비운다
+            drainRemaining();
+        }
+        return pending.future();
+    }
+
+    public AckMode getAckMode() {
+        return ackMode;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runFlushLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 모으던 배치는 기록해 future를 완료한 뒤 종료한다. 남은 큐는 stop()에서 비운다
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in message flush loop", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * flush 스레드가 끝난 뒤 큐에 남은 메시지를 호출 스레드에서 기록한다.
+     *
+     * @return 기록한 메시지 수
+     */
+    private int drainRemaining() {
+        int drained = 0;
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            writeOne(pending);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 첫 메시지 도착 후 flush-interval 동안 batch-size까지 추가로 모은다.
+     */
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<Message> messages = batch.stream().map(PendingWrite::message).toList();
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.insert(messages, Message.class);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+            batch.forEach(this::complete);
+        } catch (Exception e) {
+            log.warn("Batch insert failed, retrying individually - size: {}", batch.size(), e);
+            // insertMany는 ordered 이므로 실패 지점 이후 문서만 미기록 상태. 개별 재시도로 정리한다.
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(PendingWrite pending) {
+        try {
+            mongoTemplate.insert(pending.message());
+            complete(pending);
+        } catch (DuplicateKeyException e) {
+            // 클라이언트 측 ID이므로 중복은 이미 기록된 것으로 본다
+            complete(pending);
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.error("Failed to persist message - id: {}, room: {}",
+                    pending.message().getId(), pending.message().getRoomId(), e);
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    private void complete(PendingWrite pending) {
+        commitLatencyTimer.record(System.nanoTime() - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        pending.future().complete(pending.message());
+    }
+
+    private record PendingWrite(Message message, CompletableFuture<Message> future, long enqueuedAtNanos) {
+    }
+}
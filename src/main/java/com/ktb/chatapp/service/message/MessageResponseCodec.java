@@ -0,0 +1,453 @@
+package com.ktb.chatapp.service.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.FileResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.AiType;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 캐시용 MessageResponse 바이너리 코덱
+ * 필드 순서가 고정된 스키마로 기록해 JSON의 필드 이름과 {@code @class} 타입 정보를 없앤다.
+ *
+ * <pre>
+ * [MAGIC][VERSION][FLAGS][body]
+ * FLAGS bit0 = body가 deflate로 압축됨
+ * 문자열 = varint(UTF-8 길이 + 1) + bytes, 0은 null
+ * 컬렉션 = varint(크기 + 1) + 원소, 0은 null
+ * 메타데이터 값 = tag + 값 (문자열/정수/불리언 외에는 JSON)
+ * </pre>
+ *
+ * 본문이 compressThreshold 바이트 이상이고 압축 결과가 더 작을 때만 압축한다.
+ * 첫 바이트가 MAGIC이 아니면 이전 형식(GenericJackson2Json JSON)으로 보고 legacy 직렬화기로 읽으므로
+ * 기존 캐시 항목은 만료나 덮어쓰기 전까지 그대로 읽힌다.
+ * 스키마가 바뀌면 VERSION을 올리고 이전 버전 읽기를 남겨 둔다.
+ */
+public class MessageResponseCodec implements RedisSerializer<MessageResponse> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+    private static final int FLAG_DEFLATED = 1;
+    private static final int HEADER_SIZE = 3;
+
+    private static final int META_NULL = 0;
+    private static final int META_STRING = 1;
+    private static final int META_INT = 2;
+    private static final int META_LONG = 3;
+    private static final int META_TRUE = 4;
+    private static final int META_FALSE = 5;
+    private static final int META_JSON = 6;
+
+    private static final ObjectMapper METADATA_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final GenericJackson2JsonRedisSerializer legacySerializer;
+    private final int compressThreshold;
+
+    public MessageResponseCodec(GenericJackson2JsonRedisSerializer legacySerializer, int compressThreshold) {
+        this.legacySerializer = legacySerializer;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(MessageResponse message) throws SerializationException {
+        if (message == null) {
+            return null;
+        }
+        Writer body = new Writer();
+        writeMessage(body, message);
+
+        byte[] payload = body.toByteArray();
+        int flags = 0;
+        if (compressThreshold > 0 && payload.length >= compressThreshold) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+        byte[] result = new byte[HEADER_SIZE + payload.length];
+        result[0] = MAGIC;
+        result[1] = VERSION;
+        result[2] = (byte) flags;
+        System.arraycopy(payload, 0, result, HEADER_SIZE, payload.length);
+        return result;
+    }
+
+    @Override
+    public MessageResponse deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes, MessageResponse.class);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            throw new SerializationException("Truncated message payload");
+        }
+        if (bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported message codec version: " + bytes[1]);
+        }
+        byte[] payload = Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+        if ((bytes[2] & FLAG_DEFLATED) != 0) {
+            payload = inflate(payload);
+        }
+        try {
+            return readMessage(new Reader(payload));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode message payload", e);
+        }
+    }
+
+    private static void writeMessage(Writer out, MessageResponse message) {
+        out.string(message.getId());
+        out.string(message.getRoomId());
+        out.string(message.getContent());
+        UserResponse sender = message.getSender();
+        out.presence(sender != null);
+        if (sender != null) {
+            out.string(sender.getId());
+            out.string(sender.getName());
+            out.string(sender.getEmail());
+            out.string(sender.getPresignedProfileImage());
+        }
+        out.string(message.getType() != null ? message.getType().name() : null);
+        FileResponse file = message.getFile();
+        out.presence(file != null);
+        if (file != null) {
+            out.string(file.getId());
+            out.string(file.getFilename());
+            out.string(file.getOriginalname());
+            out.string(file.getMimetype());
+            out.varLong(file.getSize());
+            out.string(file.getUser());
+            out.dateTime(file.getUploadDate());
+        }
+        out.string(message.getAiType() != null ? message.getAiType().name() : null);
+        out.varLong(message.getTimestamp());
+
+        Map<String, Set<String>> reactions = message.getReactions();
+        out.size(reactions);
+        if (reactions != null) {
+            for (Map.Entry<String, Set<String>> reaction : reactions.entrySet()) {
+                out.string(reaction.getKey());
+                out.size(reaction.getValue());
+                if (reaction.getValue() != null) {
+                    reaction.getValue().forEach(out::string);
+                }
+            }
+        }
+        List<Message.MessageReader> readers = message.getReaders();
+        out.size(readers);
+        if (readers != null) {
+            for (Message.MessageReader reader : readers) {
+                out.string(reader.getUserId());
+                out.dateTime(reader.getReadAt());
+            }
+        }
+        Map<String, Object> metadata = message.getMetadata();
+        out.size(metadata);
+        if (metadata != null) {
+            for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                out.string(entry.getKey());
+                writeMetadataValue(out, entry.getValue());
+            }
+        }
+    }
+
+    private static MessageResponse readMessage(Reader in) {
+        MessageResponse message = new MessageResponse();
+        message.setId(in.string());
+        message.setRoomId(in.string());
+        message.setContent(in.string());
+        if (in.presence()) {
+            message.setSender(new UserResponse(in.string(), in.string(), in.string(), in.string()));
+        }
+        String type = in.string();
+        message.setType(type != null ? MessageType.valueOf(type) : null);
+        if (in.presence()) {
+            message.setFile(new FileResponse(in.string(), in.string(), in.string(), in.string(),
+                    in.varLong(), in.string(), in.dateTime()));
+        }
+        String aiType = in.string();
+        message.setAiType(aiType != null ? AiType.valueOf(aiType) : null);
+        message.setTimestamp(in.varLong());
+
+        int reactionCount = in.size();
+        if (reactionCount >= 0) {
+            Map<String, Set<String>> reactions = new HashMap<>(Math.max(4, reactionCount * 2));
+            for (int i = 0; i < reactionCount; i++) {
+                String emoji = in.string();
+                int userCount = in.size();
+                Set<String> users = null;
+                if (userCount >= 0) {
+                    users = new HashSet<>(Math.max(4, userCount * 2));
+                    for (int j = 0; j < userCount; j++) {
+                        users.add(in.string());
+                    }
+                }
+                reactions.put(emoji, users);
+            }
+            message.setReactions(reactions);
+        }
+        int readerCount = in.size();
+        if (readerCount >= 0) {
+            List<Message.MessageReader> readers = new ArrayList<>(readerCount);
+            for (int i = 0; i < readerCount; i++) {
+                readers.add(new Message.MessageReader(in.string(), in.dateTime()));
+            }
+            message.setReaders(readers);
+        }
+        int metadataCount = in.size();
+        if (metadataCount >= 0) {
+            Map<String, Object> metadata = new HashMap<>(Math.max(4, metadataCount * 2));
+            for (int i = 0; i < metadataCount; i++) {
+                metadata.put(in.string(), readMetadataValue(in));
+            }
+            message.setMetadata(metadata);
+        }
+        return message;
+    }
+
+    // 메타데이터 값은 자주 쓰는 스칼라만 직접 기록하고 나머지는 JSON으로 남긴다
+    private static void writeMetadataValue(Writer out, Object value) {
+        switch (value) {
+            case null -> out.tag(META_NULL);
+            case String text -> {
+                out.tag(META_STRING);
+                out.string(text);
+            }
+            case Integer number -> {
+                out.tag(META_INT);
+                out.zigZag(number);
+            }
+            case Long number -> {
+                out.tag(META_LONG);
+                out.zigZag(number);
+            }
+            case Boolean flag -> out.tag(flag ? META_TRUE : META_FALSE);
+            default -> {
+                out.tag(META_JSON);
+                try {
+                    out.bytes(METADATA_MAPPER.writeValueAsBytes(value));
+                } catch (IOException e) {
+                    throw new SerializationException("Could not encode message metadata", e);
+                }
+            }
+        }
+    }
+
+    private static Object readMetadataValue(Reader in) {
+        int tag = in.tag();
+        return switch (tag) {
+            case META_NULL -> null;
+            case META_STRING -> in.string();
+            case META_INT -> (int) in.zigZag();
+            case META_LONG -> in.zigZag();
+            case META_TRUE -> Boolean.TRUE;
+            case META_FALSE -> Boolean.FALSE;
+            case META_JSON -> {
+                try {
+                    yield METADATA_MAPPER.readValue(in.bytes(), Object.class);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not decode message metadata", e);
+                }
+            }
+            default -> throw new SerializationException("Unknown metadata value tag: " + tag);
+        };
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[Math.min(8192, input.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed message payload");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupted compressed message payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        void presence(boolean present) {
+            ensure(1);
+            buffer[position++] = (byte) (present ? 1 : 0);
+        }
+
+        void tag(int tag) {
+            ensure(1);
+            buffer[position++] = (byte) tag;
+        }
+
+        void zigZag(long value) {
+            varLong((value << 1) ^ (value >> 63));
+        }
+
+        void varLong(long value) {
+            // 음수는 10바이트가 되지만 timestamp/size는 항상 0 이상이다
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void size(Map<?, ?> map) {
+            varLong(map == null ? 0 : map.size() + 1L);
+        }
+
+        void size(Collection<?> collection) {
+            varLong(collection == null ? 0 : collection.size() + 1L);
+        }
+
+        void bytes(byte[] value) {
+            if (value == null) {
+                varLong(0);
+                return;
+            }
+            varLong(value.length + 1L);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        void string(String value) {
+            bytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+        }
+
+        void dateTime(LocalDateTime value) {
+            presence(value != null);
+            if (value != null) {
+                varLong(value.toEpochSecond(ZoneOffset.UTC));
+                varLong(value.getNano());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean presence() {
+            return buffer[position++] != 0;
+        }
+
+        int tag() {
+            return buffer[position++];
+        }
+
+        long zigZag() {
+            long value = varLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long varLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        int size() {
+            return (int) varLong() - 1;
+        }
+
+        byte[] bytes() {
+            int length = size();
+            if (length < 0) {
+                return null;
+            }
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+
+        String string() {
+            int length = size();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        LocalDateTime dateTime() {
+            if (!presence()) {
+                return null;
+            }
+            long epochSecond = varLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, (int) varLong(), ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ktb.chatapp.service.moderation;
+
+import com.ktb.chatapp.util.BannedWordChecker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * 금칙어 사전 핫 리로드
+ * Redis에 게시된 사전(버전 + 단어 목록)을 우선 사용하고, 게시된 사전이 없으면 설정된 파일의 변경을 감시한다.
+ * 새 오토마톤은 전용 스레드에서 컴파일한 뒤 BannedWordChecker에 원자적으로 교체한다.
+ * 사전은 운영 도구가 {@code banned-word:dictionary} hash의 version/words 필드를 HSET 한 번으로 써서 게시하고,
+ * {@code banned-word:reload} topic에 버전을 publish해 즉시 알린다. 이 애플리케이션에는 사전을 바꾸는 경로가 없다.
+ * 알림을 놓친 노드도 주기 점검으로 수 초 안에 같은 버전에 수렴한다.
+ *
+ * <p>banned_word.dictionary.version은 Redis 사전이면 게시 버전, 파일 사전이면 파일 수정 시각(epoch ms)이다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chatapp.banned-word.reload.enabled", havingValue = "true", matchIfMissing = true)
+public class BannedWordReloader {
+
+    private static final String DICTIONARY_KEY = "banned-word:dictionary";
+    private static final String RELOAD_TOPIC = "banned-word:reload";
+    private static final String VERSION_FIELD = "version";
+    private static final String WORDS_FIELD = "words";
+
+    private final BannedWordChecker bannedWordChecker;
+    private final Resource resource;
+    private final Duration checkInterval;
+    private final RMap<String, String> dictionary;
+    private final RTopic reloadTopic;
+    private final Timer compileTimer;
+    private final AtomicLong activeVersion = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "banned-word-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long resourceLastModified;
+    private int listenerId = -1;
+
+    public BannedWordReloader(
+            BannedWordChecker bannedWordChecker,
+            ResourceLoader resourceLoader,
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.banned-word.location:classpath:fake_banned_words_10k.txt}") String location,
+            @Value("${chatapp.banned-word.reload.interval:5s}") Duration checkInterval) {
+        this.bannedWordChecker = bannedWordChecker;
+        this.resource = resourceLoader.getResource(location);
+        this.checkInterval = checkInterval;
+        this.dictionary = redissonClient.getMap(DICTIONARY_KEY, StringCodec.INSTANCE);
+        this.reloadTopic = redissonClient.getTopic(RELOAD_TOPIC, StringCodec.INSTANCE);
+        this.compileTimer = Timer.builder("banned_word.compile.time")
+                .description("Time to compile a banned word dictionary")
+                .register(meterRegistry);
+        Gauge.builder("banned_word.dictionary.version", activeVersion, AtomicLong::get)
+                .description("Version of the active banned word dictionary")
+                .register(meterRegistry);
+        Gauge.builder("banned_word.dictionary.size", bannedWordChecker, BannedWordChecker::getWordCount)
+                .description("Words in the active banned word dictionary")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 기동 시 BannedWordConfig가 읽은 파일을 기준으로 삼는다
+        resourceLastModified = lastModified();
+        activeVersion.set(resourceLastModified);
+        try {
+            listenerId = reloadTopic.addListener(String.class,
+                    (channel, version) -> scheduler.execute(this::checkForUpdates));
+        } catch (Exception e) {
+            log.error("Failed to subscribe banned word reload topic", e);
+        }
+        scheduler.execute(this::checkForUpdates);
+        scheduler.scheduleWithFixedDelay(this::checkForUpdates,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (listenerId >= 0) {
+            reloadTopic.removeListener(listenerId);
+        }
+        scheduler.shutdownNow();
+    }
+
+    public long getActiveVersion() {
+        return activeVersion.get();
+    }
+
+    private void checkForUpdates() {
+        try {
+            if (!reloadFromRedis()) {
+                reloadFromFile();
+            }
+        } catch (Exception e) {
+            // 실패해도 기존 사전으로 계속 검사한다
+            log.warn("Banned word dictionary reload failed, keeping version {}", activeVersion.get(), e);
+        }
+    }
+
+    private boolean reloadFromRedis() {
+        Map<String, String> published = dictionary.getAll(Set.of(VERSION_FIELD, WORDS_FIELD));
+        String version = published.get(VERSION_FIELD);
+        String words = published.get(WORDS_FIELD);
+        if (version == null || words == null) {
+            return false;
+        }
+        long publishedVersion = Long.parseLong(version);
+        if (publishedVersion != activeVersion.get()) {
+            compileAndSwap(parseWords(words), publishedVersion, "redis");
+        }
+        return true;
+    }
+
+    private void reloadFromFile() throws IOException {
+        long lastModified = lastModified();
+        if (lastModified <= 0 || lastModified == resourceLastModified) {
+            return;
+        }
+        compileAndSwap(readWords(resource), lastModified, "file");
+        resourceLastModified = lastModified;
+    }
+
+    private void compileAndSwap(Set<String> words, long version, String source) {
+        long started = System.nanoTime();
+        bannedWordChecker.replaceWords(words);
+        long elapsed = System.nanoTime() - started;
+        compileTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        activeVersion.set(version);
+        log.info("Banned word dictionary swapped - source: {}, version: {}, words: {}, compileMs: {}",
+                source, version, bannedWordChecker.getWordCount(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    // classpath(jar) 리소스는 바뀌지 않으므로 파일 시스템 리소스만 감시한다
+    private long lastModified() {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static Set<String> parseWords(String words) {
+        return Arrays.stream(words.split("\n"))
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 사전 파일을 읽는다. 한 줄에 한 단어이며 빈 줄은 무시한다.
+     */
+    public static Set<String> readWords(Resource resource) throws IOException {
+        try (BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.ktb.chatapp.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Node-local rate limiter in front of the shared RateLimitStore.
+ * Each client and limit has a local bucket holding the last known cluster-wide usage of the current
+ * window and the requests allowed here since the last sync. While usage stays below
+ * {@code local-threshold} of the limit, requests are allowed without touching the store; the check
+ * and the reservation are one compare-and-set on the bucket state.
+ * A background thread pushes the local deltas every {@code sync-interval}. Near the limit, or
+ * when the window rolls over, the request is escalated to a strict check that pushes the
+ * pending delta and counts the request in one atomic store call.
+ *
+ * <p>The shared counter is a fixed window, so the limiter only runs when
+ * {@code chatapp.rate-limit.algorithm} is {@code fixed-window}; other algorithms go straight to the store.
+ * Window ends are kept on the local clock: the store reports the time left in the window, not the
+ * store's own timestamp.
+ *
+ * <p>The limit is not strict across nodes. Every node allows up to {@code local-threshold} of the limit
+ * on its own view of the usage before it has to ask the store, so with N nodes a client can be
+ * allowed up to about N &times; threshold &times; limit requests in one window in the worst case.
+ */
+@Slf4j
+@Component
+public class HybridRateLimiter {
+
+    private final RateLimitStore rateLimitStore;
+    private final RateLimitAlgorithm algorithm;
+    private final boolean enabled;
+    private final double localThreshold;
+    private final Duration syncInterval;
+    private final Cache<String, Bucket> buckets;
+
+    private final Counter localAllowed;
+    private final Counter escalations;
+    private final Counter syncFailures;
+
+    private volatile boolean supported = true;
+    private volatile boolean running;
+    private Thread syncer;
+
+    public HybridRateLimiter(
+            RateLimitStore rateLimitStore,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.rate-limit.algorithm:sliding-window}") String algorithm,
+            @Value("${chatapp.rate-limit.hybrid.enabled:true}") boolean enabled,
+            @Value("${chatapp.rate-limit.hybrid.local-threshold:0.8}") double localThreshold,
+            @Value("${chatapp.rate-limit.hybrid.sync-interval:250ms}") Duration syncInterval,
+            @Value("${chatapp.rate-limit.hybrid.max-clients:100000}") long maxClients) {
+        Assert.isTrue(localThreshold >= 0 && localThreshold <= 1, "Local threshold must be between 0 and 1");
+        this.rateLimitStore = rateLimitStore;
+        this.algorithm = RateLimitAlgorithm.from(algorithm);
+        this.enabled = enabled && this.algorithm == RateLimitAlgorithm.FIXED_WINDOW;
+        if (enabled && !this.enabled) {
+            log.warn("Hybrid rate limiting is enabled but only supports fixed-window - algorithm: {}. "
+                    + "Every check will go to the store.", this.algorithm);
+        }
+        this.localThreshold = localThreshold;
+        this.syncInterval = syncInterval;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .maximumSize(maxClients)
+                .build();
+
+        Gauge.builder("ratelimit.hybrid.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a local rate limit bucket")
+                .register(meterRegistry);
+        this.localAllowed = Counter.builder("ratelimit.hybrid.local.allowed")
+                .description("Requests allowed without a shared store call")
+                .register(meterRegistry);
+        this.escalations = Counter.builder("ratelimit.hybrid.escalations")
+                .description("Requests checked strictly against the shared store")
+                .register(meterRegistry);
+        this.syncFailures = Counter.builder("ratelimit.hybrid.sync.failures")
+                .description("Failed local usage syncs")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Hybrid rate limiter inactive - algorithm: {}", algorithm);
+            return;
+        }
+        running = true;
+        syncer = Thread.ofPlatform()
+                .name("ratelimit-hybrid-sync")
+                .daemon(true)
+                .start(this::runSyncLoop);
+        log.info("Hybrid rate limiter started - localThreshold: {}, syncInterval: {}", localThreshold, syncInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (syncer != null) {
+            syncer.interrupt();
+            syncer.join(Duration.ofSeconds(5));
+        }
+        sync();
+    }
+
+    /**
+     * @return the check result, or empty if the limiter is disabled or the store has no atomic usage counter
+     */
+    public Optional<RateLimitCheckResult> tryAcquire(String clientId, int maxRequests, Duration window) {
+        if (!enabled || !supported || maxRequests <= 0) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        // 같은 클라이언트라도 한도/윈도우가 다른 규칙은 서로 다른 카운터를 쓴다
+        String key = clientId + ":" + maxRequests + ":" + window.toMillis();
+        Bucket bucket = buckets.get(key, k -> new Bucket(maxRequests, window));
+        long localLimit = (long) (maxRequests * localThreshold);
+
+        while (true) {
+            State state = bucket.state.get();
+            if (now >= state.resetEpochMillis()) {
+                break;
+            }
+            if (state.used() >= maxRequests) {
+                // 윈도우 안에서 사용량은 줄지 않으므로 저장소에 묻지 않고 거절한다
+                return Optional.of(rejected(maxRequests, window, state.resetEpochMillis(), now));
+            }
+            long used = state.used() + state.pending();
+            if (used >= localLimit) {
+                break;
+            }
+            if (bucket.state.compareAndSet(state, state.withPending(state.pending() + 1))) {
+                localAllowed.increment();
+                return Optional.of(allowed(maxRequests, window, used + 1, state.resetEpochMillis(), now));
+            }
+        }
+        return escalate(key, bucket, now);
+    }
+
+    private Optional<RateLimitCheckResult> escalate(String key, Bucket bucket, long now) {
+        int maxRequests = bucket.maxRequests;
+        Duration window = bucket.window;
+        bucket.lock.lock();
+        try {
+            Optional<WindowUsage> result = push(key, bucket, true, now);
+            if (result.isEmpty()) {
+                supported = false;
+                log.info("Rate limit store has no atomic usage counter, hybrid limiting disabled");
+                return Optional.empty();
+            }
+            escalations.increment();
+            WindowUsage usage = result.get();
+            long resetEpochMillis = bucket.state.get().resetEpochMillis();
+            return Optional.of(usage.acquired()
+                    ? allowed(maxRequests, window, usage.used(), resetEpochMillis, now)
+                    : rejected(maxRequests, window, resetEpochMillis, now));
+        } finally {
+            bucket.lock.unlock();
+        }
+    }
+
+    private void runSyncLoop() {
+        while (running) {
+            try {
+                Thread.sleep(syncInterval);
+                sync();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in hybrid rate limit sync loop", e);
+            }
+        }
+    }
+
+    void sync() {
+        long now = System.currentTimeMillis();
+        buckets.asMap().forEach((key, bucket) -> {
+            if (bucket.state.get().pending() == 0 || !bucket.lock.tryLock()) {
+                return;
+            }
+            try {
+                push(key, bucket, false, now);
+            } catch (Exception e) {
+                syncFailures.increment();
+                log.warn("Hybrid rate limit sync failed - key: {}", key, e);
+            } finally {
+                bucket.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Push the pending delta to the store. Must be called with the bucket lock held.
+     * The new usage and the reduced pending count are published in one state swap, so
+     * concurrent local checks never see the delta counted twice or not at all.
+     */
+    private Optional<WindowUsage> push(String key, Bucket bucket, boolean acquire, long now) {
+        long delta = bucket.state.get().pending();
+        if (now >= bucket.state.get().resetEpochMillis()) {
+            // 지난 윈도우에서 허용된 요청은 새 윈도우에 넘기지 않는다
+            long dropped = delta;
+            bucket.state.updateAndGet(state -> state.withPending(state.pending() - dropped));
+            delta = 0;
+            if (!acquire) {
+                return Optional.empty();
+            }
+        }
+        Optional<WindowUsage> result = rateLimitStore.addUsage(
+                key, delta, acquire, bucket.maxRequests, bucket.window);
+        if (result.isPresent()) {
+            // 저장소 시계가 아니라 남은 시간으로 받아 로컬 시계 기준의 윈도우 끝을 만든다
+            long used = result.get().used();
+            long resetEpochMillis = System.currentTimeMillis() + result.get().resetAfterMillis();
+            long pushed = delta;
+            bucket.state.updateAndGet(state -> new State(used, state.pending() - pushed, resetEpochMillis));
+        }
+        return result;
+    }
+
+    private static RateLimitCheckResult allowed(
+            int maxRequests, Duration window, long used, long resetEpochMillis, long now) {
+        int remaining = (int) Math.max(0L, maxRequests - used);
+        return RateLimitCheckResult.allowed(maxRequests, remaining, windowSeconds(window),
+                toSeconds(resetEpochMillis), Math.max(1L, toSeconds(resetEpochMillis - now)));
+    }
+
+    private static RateLimitCheckResult rejected(int maxRequests, Duration window, long resetEpochMillis, long now) {
+        return RateLimitCheckResult.rejected(maxRequests, windowSeconds(window),
+                toSeconds(resetEpochMillis), Math.max(1L, toSeconds(resetEpochMillis - now)));
+    }
+
+    private static long windowSeconds(Duration window) {
+        return Math.max(1L, window.getSeconds());
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    /**
+     * @param used             last known cluster-wide usage of the window
+     * @param pending          requests allowed here and not yet pushed to the store
+     * @param resetEpochMillis when the window ends, on the local clock
+     */
+    private record State(long used, long pending, long resetEpochMillis) {
+
+        State withPending(long pending) {
+            return new State(used, pending, resetEpochMillis);
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxRequests;
+        private final Duration window;
+
+        Bucket(int maxRequests, Duration window) {
+            this.maxRequests = maxRequests;
+            this.window = window;
+        }
+    }
+}
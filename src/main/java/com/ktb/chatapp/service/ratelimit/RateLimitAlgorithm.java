@@ -0,0 +1,25 @@
+package com.ktb.chatapp.service.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Rate limit algorithms supported by atomic stores.
+ */
+public enum RateLimitAlgorithm {
+
+    /** Counter per fixed window; allows bursts of up to 2x at window edges. */
+    FIXED_WINDOW,
+
+    /** Timestamp of every request in the window; exact but O(limit) memory per client. */
+    SLIDING_LOG,
+
+    /** Current and previous window counters weighted by overlap; O(1) memory approximation. */
+    SLIDING_WINDOW,
+
+    /** Generic cell rate algorithm; smooth spacing with a burst of up to the limit. */
+    GCRA;
+
+    public static RateLimitAlgorithm from(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
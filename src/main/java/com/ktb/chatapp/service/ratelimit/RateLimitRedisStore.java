@@ -0,0 +1,229 @@
+package com.ktb.chatapp.service.ratelimit;
+
+import com.ktb.chatapp.model.RateLimit;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis implementation of RateLimitStore.
+ * Each check is one Lua script call that reads, decides and updates atomically, using the
+ * Redis server clock so that all nodes share one time source.
+ * Every script returns {allowed, remaining, resetEpochMillis, retryAfterMillis}.
+ */
+@Component
+@ConditionalOnProperty(name = "chatapp.rate-limit.store", havingValue = "redis")
+public class RateLimitRedisStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private static final String CLOCK = """
+            local limit = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            """;
+
+    private static final String FIXED_WINDOW = CLOCK + """
+            local count = redis.call('INCR', KEYS[1])
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl < 0 then
+                redis.call('PEXPIRE', KEYS[1], window)
+                ttl = window
+            end
+            if count > limit then
+                return {0, 0, now + ttl, ttl}
+            end
+            return {1, limit - count, now + ttl, ttl}
+            """;
+
+    private static final String SLIDING_LOG = CLOCK + """
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            local count = redis.call('ZCARD', KEYS[1])
+            if count >= limit then
+                local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+                local retry = window
+                if oldest[2] then
+                    retry = tonumber(oldest[2]) + window - now
+                end
+                return {0, 0, now + retry, retry}
+            end
+            redis.call('ZADD', KEYS[1], now, ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], window)
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            local reset = tonumber(oldest[2]) + window
+            return {1, limit - count - 1, reset, reset - now}
+            """;
+
+    private static final String SLIDING_WINDOW = CLOCK + """
+            local current = math.floor(now / window)
+            local state = redis.call('HMGET', KEYS[1], 'w', 'curr', 'prev')
+            local w = tonumber(state[1]) or current
+            local curr = tonumber(state[2]) or 0
+            local prev = tonumber(state[3]) or 0
+            if w ~= current then
+                if w == current - 1 then
+                    prev = curr
+                else
+                    prev = 0
+                end
+                curr = 0
+            end
+            local elapsed = now - current * window
+            local estimated = prev * (window - elapsed) / window + curr
+            local reset = (current + 1) * window
+            if estimated + 1 > limit then
+                local retry = reset - now
+                if prev > 0 and curr < limit then
+                    -- 이전 윈도우 가중치가 줄어 한 건이 들어갈 수 있게 되는 시점
+                    retry = math.min(retry, math.ceil((estimated + 1 - limit) / prev * window))
+                end
+                return {0, 0, reset, math.max(retry, 1)}
+            end
+            curr = curr + 1
+            redis.call('HSET', KEYS[1], 'w', current, 'curr', curr, 'prev', prev)
+            redis.call('PEXPIRE', KEYS[1], window * 2)
+            return {1, math.floor(limit - estimated - 1), reset, reset - now}
+            """;
+
+    // TAT(theoretical arrival time)만 저장한다. 버스트 허용량은 limit, 요청 간격은 window / limit
+    private static final String GCRA = CLOCK + """
+            local emission = window / limit
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then
+                tat = now
+            end
+            local newTat = tat + emission
+            local allowAt = newTat - window
+            if now < allowAt then
+                return {0, 0, math.ceil(tat), math.ceil(allowAt - now)}
+            end
+            redis.call('SET', KEYS[1], string.format('%.3f', newTat), 'PX', math.ceil(newTat - now))
+            local remaining = math.floor((window - (newTat - now)) / emission)
+            return {1, remaining, math.ceil(newTat), math.ceil(newTat - now)}
+            """;
+
+    // HybridRateLimiter의 로컬 소비량 반영용 고정 윈도우 카운터. 반환값: {acquired, used, resetAfterMillis}
+    // 서버 시각 대신 남은 시간을 돌려줘 호출 노드가 자기 시계로 윈도우 끝을 계산한다
+    private static final RedisScript<List> ADD_USAGE = new DefaultRedisScript<>("""
+            local limit = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local delta = tonumber(ARGV[3])
+            local count = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if delta > 0 then
+                count = redis.call('INCRBY', KEYS[1], delta)
+            end
+            local acquired = 0
+            if ARGV[4] == '1' and count < limit then
+                count = redis.call('INCR', KEYS[1])
+                acquired = 1
+            end
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl < 0 then
+                if count == 0 then
+                    return {acquired, 0, window}
+                end
+                redis.call('PEXPIRE', KEYS[1], window)
+                ttl = window
+            end
+            return {acquired, count, ttl}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<RateLimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(RateLimitAlgorithm.class);
+
+    public RateLimitRedisStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        scripts.put(RateLimitAlgorithm.FIXED_WINDOW, new DefaultRedisScript<>(FIXED_WINDOW, List.class));
+        scripts.put(RateLimitAlgorithm.SLIDING_LOG, new DefaultRedisScript<>(SLIDING_LOG, List.class));
+        scripts.put(RateLimitAlgorithm.SLIDING_WINDOW, new DefaultRedisScript<>(SLIDING_WINDOW, List.class));
+        scripts.put(RateLimitAlgorithm.GCRA, new DefaultRedisScript<>(GCRA, List.class));
+    }
+
+    private String key(RateLimitAlgorithm algorithm, String clientId) {
+        return KEY_PREFIX + algorithm.name().toLowerCase(Locale.ROOT) + ":" + clientId;
+    }
+
+    @Override
+    public Optional<RateLimitCheckResult> acquire(
+            String clientId, int maxRequests, Duration window, RateLimitAlgorithm algorithm) {
+        long windowMillis = Math.max(1L, window.toMillis());
+        long windowSeconds = Math.max(1L, window.getSeconds());
+        if (maxRequests <= 0) {
+            long reset = Instant.now().getEpochSecond() + windowSeconds;
+            return Optional.of(RateLimitCheckResult.rejected(maxRequests, windowSeconds, reset, windowSeconds));
+        }
+
+        List<?> reply = redisTemplate.execute(scripts.get(algorithm), List.of(key(algorithm, clientId)),
+                Integer.toString(maxRequests), Long.toString(windowMillis), UUID.randomUUID().toString());
+        if (reply == null || reply.size() < 4) {
+            return Optional.empty();
+        }
+
+        boolean allowed = ((Number) reply.get(0)).longValue() == 1L;
+        int remaining = (int) Math.max(0L, ((Number) reply.get(1)).longValue());
+        long resetEpochSeconds = toSeconds(((Number) reply.get(2)).longValue());
+        long retryAfterSeconds = Math.max(1L, toSeconds(((Number) reply.get(3)).longValue()));
+        return Optional.of(allowed
+                ? RateLimitCheckResult.allowed(maxRequests, remaining, windowSeconds, resetEpochSeconds, retryAfterSeconds)
+                : RateLimitCheckResult.rejected(maxRequests, windowSeconds, resetEpochSeconds, retryAfterSeconds));
+    }
+
+    @Override
+    public Optional<WindowUsage> addUsage(
+            String clientId, long delta, boolean acquire, int maxRequests, Duration window) {
+        List<?> reply = redisTemplate.execute(ADD_USAGE, List.of(KEY_PREFIX + "hybrid:" + clientId),
+                Integer.toString(maxRequests), Long.toString(Math.max(1L, window.toMillis())),
+                Long.toString(delta), acquire ? "1" : "0");
+        if (reply == null || reply.size() < 3) {
+            return Optional.empty();
+        }
+        return Optional.of(new WindowUsage(
+                ((Number) reply.get(0)).longValue() == 1L,
+                ((Number) reply.get(1)).longValue(),
+                ((Number) reply.get(2)).longValue()));
+    }
+
+    @Override
+    public Optional<RateLimit> findByClientId(String clientId) {
+        String key = key(RateLimitAlgorithm.FIXED_WINDOW, clientId);
+        String count = redisTemplate.opsForValue().get(key);
+        if (count == null) {
+            return Optional.empty();
+        }
+        Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+        return Optional.of(RateLimit.builder()
+                .clientId(clientId)
+                .count(Integer.parseInt(count))
+                .expiresAt(Instant.now().plusMillis(ttl != null && ttl > 0 ? ttl : 0))
+                .build());
+    }
+
+    @Override
+    public RateLimit save(RateLimit rateLimit) {
+        Duration ttl = Duration.between(Instant.now(), rateLimit.getExpiresAt());
+        if (ttl.isNegative() || ttl.isZero()) {
+            redisTemplate.delete(key(RateLimitAlgorithm.FIXED_WINDOW, rateLimit.getClientId()));
+            return rateLimit;
+        }
+        redisTemplate.opsForValue().set(key(RateLimitAlgorithm.FIXED_WINDOW, rateLimit.getClientId()),
+                Integer.toString(rateLimit.getCount()), ttl);
+        return rateLimit;
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ktb.chatapp.service.ratelimit;
 
 import com.ktb.chatapp.model.RateLimit;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import java.time.Duration;
 import java.util.Optional;
 
 /**
@@ -24,4 +26,37 @@ public interface RateLimitStore {
      * @return the saved rate limit
      */
     RateLimit save(RateLimit rateLimit);
+    
+    /**
+     * Count one request and decide in a single atomic operation.
+     * Stores that cannot do this atomically return empty, and RateLimitService
+     * falls back to findByClientId/save.
+     *
+     * @param clientId    the client identifier
+     * @param maxRequests requests allowed per window
+     * @param window      window length
+     * @param algorithm   limiting algorithm
+     * @return the check result, or empty if atomic checks are not supported
+     */
+    default Optional<RateLimitCheckResult> acquire(
+            String clientId, int maxRequests, Duration window, RateLimitAlgorithm algorithm) {
+        return Optional.empty();
+    }
+    
+    /**
+     * Add locally counted requests to the shared window counter and, if requested,
+     * count one more request only when the limit still allows it.
+     * Used by HybridRateLimiter to reconcile local consumption.
+     *
+     * @param clientId    the counter key, one per client and limit
+     * @param delta       requests already allowed locally since the last call
+     * @param acquire     whether to try to count one more request
+     * @param maxRequests requests allowed per window
+     * @param window      window length
+     * @return the updated usage, or empty if the store cannot do this atomically
+     */
+    default Optional<WindowUsage> addUsage(
+            String clientId, long delta, boolean acquire, int maxRequests, Duration window) {
+        return Optional.empty();
+    }
 }
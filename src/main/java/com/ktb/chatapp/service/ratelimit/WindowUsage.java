@@ -0,0 +1,11 @@
+package com.ktb.chatapp.service.ratelimit;
+
+/**
+ * Cluster-wide request count of a client in the current window.
+ *
+ * @param acquired        whether the request asked for in the same call was counted
+ * @param used            requests counted in the window, including this call
+ * @param resetAfterMillis time left in the window, so that callers can place the window end on their own clock
+ */
+public record WindowUsage(boolean acquired, long used, long resetAfterMillis) {
+}
@@ -0,0 +1,11 @@
+package com.ktb.chatapp.service.session;
+
+/**
+ * Buffered activity for one session, flushed to the store in bulk.
+ *
+ * @param userId       the user identifier
+ * @param sessionId    the session the activity belongs to; stores must ignore it if the session changed
+ * @param lastActivity latest activity time in epoch millis
+ */
+public record SessionActivity(String userId, String sessionId, long lastActivity) {
+}
@@ -0,0 +1,196 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.model.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import static com.ktb.chatapp.model.Session.SESSION_TTL;
+
+/**
+ * 세션 활동 시각 쓰기 병합 버퍼
+ * 사용자별 최신 활동 시각을 메모리에 모아 flush-interval마다 한 번의 bulk update로 저장소에 반영한다.
+ * 검증 자체는 SessionValidationCache가 담당하고, 캐시로 검증된 요청의 활동 시각이 이 버퍼에 모인다.
+ *
+ * <p>SESSION_TTL이 노드 간에도 지켜지도록 다음을 보장한다.
+ * <ul>
+ *     <li>flush-interval은 TTL의 절반 미만이라 활동 중인 세션의 저장소 만료 시각이 TTL 안에서 계속 연장된다.</li>
+ *     <li>flush는 sessionId가 같고 더 최신인 경우에만 갱신하므로 삭제/교체된 세션을 되살리거나 시각을 되돌리지 않는다.</li>
+ *     <li>TTL을 넘겨 활동이 없는 항목은 flush 중에 정리된다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SessionActivityBuffer {
+
+    private static final long SESSION_TTL_MILLIS = DurationStyle.detectAndParse(SESSION_TTL).toMillis();
+
+    private final SessionStore sessionStore;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public SessionActivityBuffer(
+            SessionStore sessionStore,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.session.activity.coalesce:true}") boolean enabled,
+            @Value("${chatapp.session.activity.flush-interval:5s}") Duration flushInterval) {
+        Assert.isTrue(flushInterval.toMillis() * 2 < SESSION_TTL_MILLIS,
+                "Session activity flush interval must be less than half of SESSION_TTL");
+        this.sessionStore = sessionStore;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+
+        Gauge.builder("session.activity.buffered", entries, Map::size)
+                .description("Sessions tracked in the activity buffer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("session.activity.flush.time")
+                .description("Time spent writing buffered session activity")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("session.activity.flush.failures")
+                .description("Failed session activity flushes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("session-activity-flusher")
+                .daemon(true)
+                .start(this::runFlushLoop);
+        log.info("Session activity buffer started - flushInterval: {}", flushInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(Duration.ofSeconds(5));
+        }
+        // 종료 전에 남은 활동을 반영한다
+        flush();
+    }
+
+    /**
+     * 저장소에서 검증(또는 생성)된 세션을 버퍼에 기록한다. 저장소에 이미 반영된 상태이므로 dirty가 아니다.
+     */
+    public void remember(Session session) {
+        if (!enabled) {
+            return;
+        }
+        entries.put(session.getUserId(), new Entry(session));
+    }
+
+    /**
+     * 활동을 기록한다.
+     *
+     * @return 버퍼에 세션이 있어 기록되었으면 true, 저장소에 직접 반영해야 하면 false
+     */
+    public boolean recordActivity(String userId, long now) {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return false;
+        }
+        entry.touch(now);
+        return true;
+    }
+
+    /**
+     * 버퍼에 기록된 최신 활동 시각을 반환한다.
+     */
+    public Optional<Long> lastActivity(String userId, String sessionId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || !entry.session.getSessionId().equals(sessionId)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.lastActivity.get());
+    }
+
+    public void evict(String userId) {
+        entries.remove(userId);
+    }
+
+    private void runFlushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushInterval);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in session activity flush loop", e);
+            }
+        }
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        List<SessionActivity> activities = new ArrayList<>();
+        List<Entry> flushed = new ArrayList<>();
+        entries.forEach((userId, entry) -> {
+            if (entry.dirty.compareAndSet(true, false)) {
+                activities.add(new SessionActivity(userId, entry.session.getSessionId(), entry.lastActivity.get()));
+                flushed.add(entry);
+            } else if (now - entry.lastActivity.get() > SESSION_TTL_MILLIS) {
+                entries.remove(userId, entry);
+            }
+        });
+        if (activities.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> sessionStore.touchAll(activities, SESSION_TTL_MILLIS));
+        } catch (Exception e) {
+            flushFailures.increment();
+            flushed.forEach(entry -> entry.dirty.set(true));
+            log.warn("Session activity flush failed - sessions: {}", activities.size(), e);
+        }
+    }
+
+    private static final class Entry {
+        private final Session session;
+        private final AtomicLong lastActivity;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private Entry(Session session) {
+            this.session = session;
+            this.lastActivity = new AtomicLong(session.getLastActivity());
+        }
+
+        private void touch(long now) {
+            lastActivity.accumulateAndGet(now, Math::max);
+            dirty.set(true);
+        }
+    }
+}
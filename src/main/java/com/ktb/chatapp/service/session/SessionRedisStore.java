@@ -0,0 +1,225 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.model.Session;
+import com.ktb.chatapp.service.SessionMetadata;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.model.Session.SESSION_TTL;
+
+/**
+ * Redis implementation of SessionStore.
+ * Each user's session is a hash at {@code session:{userId}} whose key TTL tracks expiresAt,
+ * so expired sessions disappear without a TTL index. Validation, session ID comparison and
+ * activity refresh run as a single Lua script.
+ */
+@Component
+@ConditionalOnProperty(name = "chatapp.session.store", havingValue = "redis")
+public class SessionRedisStore implements SessionStore {
+
+    private static final String KEY_PREFIX = "session:";
+    private static final long SESSION_TTL_MILLIS = DurationStyle.detectAndParse(SESSION_TTL).toMillis();
+
+    private static final String SESSION_ID = "sessionId";
+    private static final String CREATED_AT = "createdAt";
+    private static final String LAST_ACTIVITY = "lastActivity";
+    private static final String USER_AGENT = "userAgent";
+    private static final String IP_ADDRESS = "ipAddress";
+    private static final String DEVICE_INFO = "deviceInfo";
+
+    // 반환값: {status} 또는 {status, field, value, ...}
+    // status 0 = NOT_FOUND, 1 = MISMATCH, 2 = EXPIRED, 3 = VALID
+    private static final RedisScript<List> VALIDATE_AND_TOUCH = new DefaultRedisScript<>("""
+            local sessionId = redis.call('HGET', KEYS[1], 'sessionId')
+            if not sessionId then
+                return {0}
+            end
+            if sessionId ~= ARGV[1] then
+                return {1, 'sessionId', sessionId}
+            end
+            local now = tonumber(ARGV[2])
+            local timeout = tonumber(ARGV[3])
+            local lastActivity = tonumber(redis.call('HGET', KEYS[1], 'lastActivity') or '0')
+            if now - lastActivity > timeout then
+                redis.call('DEL', KEYS[1])
+                return {2}
+            end
+            redis.call('HSET', KEYS[1], 'lastActivity', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            local result = redis.call('HGETALL', KEYS[1])
+            table.insert(result, 1, 3)
+            return result
+            """, List.class);
+
+    // 이전 세션의 필드가 남지 않도록 통째로 교체한다
+    private static final RedisScript<Long> REPLACE = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIREAT', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS = 세션 키들, ARGV = {timeout, sessionId1, lastActivity1, sessionId2, lastActivity2, ...}
+    private static final RedisScript<Long> TOUCH_ALL = new DefaultRedisScript<>("""
+            local timeout = tonumber(ARGV[1])
+            local touched = 0
+            for i, key in ipairs(KEYS) do
+                local lastActivity = tonumber(ARGV[i * 2 + 1])
+                if redis.call('HGET', key, 'sessionId') == ARGV[i * 2] then
+                    local current = tonumber(redis.call('HGET', key, 'lastActivity') or '0')
+                    if lastActivity > current then
+                        redis.call('HSET', key, 'lastActivity', ARGV[i * 2 + 1])
+                        redis.call('PEXPIREAT', key, lastActivity + timeout)
+                        touched = touched + 1
+                    end
+                end
+            end
+            return touched
+            """, Long.class);
+
+    private static final int TOUCH_BATCH_SIZE = 500;
+
+    private static final RedisScript<Long> DELETE_IF_MATCHES = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'sessionId') == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public SessionRedisStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    private String key(String userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    @Override
+    public Optional<Session> findByUserId(String userId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(key(userId));
+        if (hash.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, String> fields = new HashMap<>();
+        hash.forEach((field, value) -> fields.put(field.toString(), value.toString()));
+        return Optional.of(toSession(userId, fields));
+    }
+
+    @Override
+    public Session save(Session session) {
+        String key = key(session.getUserId());
+        Map<String, String> fields = new HashMap<>();
+        fields.put(SESSION_ID, session.getSessionId());
+        fields.put(CREATED_AT, Long.toString(session.getCreatedAt()));
+        fields.put(LAST_ACTIVITY, Long.toString(session.getLastActivity()));
+        SessionMetadata metadata = session.getMetadata();
+        if (metadata != null) {
+            putIfNotNull(fields, USER_AGENT, metadata.userAgent());
+            putIfNotNull(fields, IP_ADDRESS, metadata.ipAddress());
+            putIfNotNull(fields, DEVICE_INFO, metadata.deviceInfo());
+        }
+        Instant expiresAt = session.getExpiresAt() != null
+                ? session.getExpiresAt()
+                : Instant.ofEpochMilli(session.getLastActivity() + SESSION_TTL_MILLIS);
+
+        List<String> args = new ArrayList<>(fields.size() * 2 + 1);
+        args.add(Long.toString(expiresAt.toEpochMilli()));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        redisTemplate.execute(REPLACE, List.of(key), args.toArray());
+        return session;
+    }
+
+    @Override
+    public void delete(String userId, String sessionId) {
+        redisTemplate.execute(DELETE_IF_MATCHES, List.of(key(userId)), sessionId);
+    }
+
+    @Override
+    public void deleteAll(String userId) {
+        redisTemplate.delete(key(userId));
+    }
+
+    @Override
+    public SessionTouchResult validateAndTouch(String userId, String sessionId, long now, long timeoutMillis) {
+        List<?> result = redisTemplate.execute(VALIDATE_AND_TOUCH, List.of(key(userId)),
+                sessionId, Long.toString(now), Long.toString(timeoutMillis));
+        if (result == null || result.isEmpty()) {
+            return SessionTouchResult.of(SessionTouchResult.Status.NOT_FOUND);
+        }
+        int status = ((Number) result.getFirst()).intValue();
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 1; i + 1 < result.size(); i += 2) {
+            fields.put(result.get(i).toString(), result.get(i + 1).toString());
+        }
+        return switch (status) {
+            case 1 -> new SessionTouchResult(SessionTouchResult.Status.MISMATCH, toSession(userId, fields));
+            case 2 -> SessionTouchResult.of(SessionTouchResult.Status.EXPIRED);
+            case 3 -> {
+                Session session = toSession(userId, fields);
+                session.setExpiresAt(Instant.ofEpochMilli(now + timeoutMillis));
+                yield SessionTouchResult.valid(session);
+            }
+            default -> SessionTouchResult.of(SessionTouchResult.Status.NOT_FOUND);
+        };
+    }
+
+    @Override
+    public void touchAll(Collection<SessionActivity> activities, long timeoutMillis) {
+        List<SessionActivity> pending = List.copyOf(activities);
+        for (int from = 0; from < pending.size(); from += TOUCH_BATCH_SIZE) {
+            List<SessionActivity> batch = pending.subList(from, Math.min(from + TOUCH_BATCH_SIZE, pending.size()));
+            List<String> keys = new ArrayList<>(batch.size());
+            List<String> args = new ArrayList<>(batch.size() * 2 + 1);
+            args.add(Long.toString(timeoutMillis));
+            for (SessionActivity activity : batch) {
+                keys.add(key(activity.userId()));
+                args.add(activity.sessionId());
+                args.add(Long.toString(activity.lastActivity()));
+            }
+            redisTemplate.execute(TOUCH_ALL, keys, args.toArray());
+        }
+    }
+
+    private Session toSession(String userId, Map<String, String> fields) {
+        SessionMetadata metadata = null;
+        if (fields.containsKey(USER_AGENT) || fields.containsKey(IP_ADDRESS) || fields.containsKey(DEVICE_INFO)) {
+            metadata = new SessionMetadata(fields.get(USER_AGENT), fields.get(IP_ADDRESS), fields.get(DEVICE_INFO));
+        }
+        long lastActivity = parseLong(fields.get(LAST_ACTIVITY));
+        return Session.builder()
+                .userId(userId)
+                .sessionId(fields.get(SESSION_ID))
+                .createdAt(parseLong(fields.get(CREATED_AT)))
+                .lastActivity(lastActivity)
+                .metadata(metadata)
+                .expiresAt(Instant.ofEpochMilli(lastActivity).plus(Duration.ofMillis(SESSION_TTL_MILLIS)))
+                .build();
+    }
+
+    private static long parseLong(String value) {
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private static void putIfNotNull(Map<String, String> fields, String field, String value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.ktb.chatapp.service.session;
 
 import com.ktb.chatapp.model.Session;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -33,4 +35,52 @@ public interface SessionStore {
     void deleteAll(String userId);
     
     void delete(String userId, String sessionId);
+    
+    /**
+     * Validate the session ID and refresh activity/expiry in one step.
+     * The default implementation reads and saves the document; stores that can do this
+     * atomically in a single round trip should override it.
+     *
+     * @param userId        the user identifier
+     * @param sessionId     the session ID presented by the client
+     * @param now           current time in epoch millis
+     * @param timeoutMillis inactivity timeout
+     * @return validation outcome
+     */
+    default SessionTouchResult validateAndTouch(String userId, String sessionId, long now, long timeoutMillis) {
+        Session session = findByUserId(userId).orElse(null);
+        if (session == null) {
+            return SessionTouchResult.of(SessionTouchResult.Status.NOT_FOUND);
+        }
+        if (!sessionId.equals(session.getSessionId())) {
+            return new SessionTouchResult(SessionTouchResult.Status.MISMATCH, session);
+        }
+        if (now - session.getLastActivity() > timeoutMillis) {
+            return SessionTouchResult.of(SessionTouchResult.Status.EXPIRED);
+        }
+        session.setLastActivity(now);
+        session.setExpiresAt(Instant.ofEpochMilli(now + timeoutMillis));
+        return SessionTouchResult.valid(save(session));
+    }
+    
+    /**
+     * Apply buffered activity to many sessions.
+     * An entry is applied only if the stored session still has the same session ID and an older
+     * lastActivity, so a flush never revives a removed session or moves activity backwards.
+     *
+     * @param activities    buffered activity per user
+     * @param timeoutMillis inactivity timeout used to compute expiresAt
+     */
+    default void touchAll(Collection<SessionActivity> activities, long timeoutMillis) {
+        for (SessionActivity activity : activities) {
+            findByUserId(activity.userId())
+                    .filter(session -> activity.sessionId().equals(session.getSessionId()))
+                    .filter(session -> session.getLastActivity() < activity.lastActivity())
+                    .ifPresent(session -> {
+                        session.setLastActivity(activity.lastActivity());
+                        session.setExpiresAt(Instant.ofEpochMilli(activity.lastActivity() + timeoutMillis));
+                        save(session);
+                    });
+        }
+    }
 }
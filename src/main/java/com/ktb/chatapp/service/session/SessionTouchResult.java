@@ -0,0 +1,27 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.model.Session;
+
+/**
+ * Outcome of a validate-and-touch operation on a session store.
+ *
+ * @param status  validation status
+ * @param session the refreshed session when valid, the stored session on mismatch, null otherwise
+ */
+public record SessionTouchResult(Status status, Session session) {
+
+    public enum Status {
+        VALID,
+        NOT_FOUND,
+        MISMATCH,
+        EXPIRED
+    }
+
+    public static SessionTouchResult valid(Session session) {
+        return new SessionTouchResult(Status.VALID, session);
+    }
+
+    public static SessionTouchResult of(Status status) {
+        return new SessionTouchResult(status, null);
+    }
+}
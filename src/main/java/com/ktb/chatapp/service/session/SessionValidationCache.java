@@ -0,0 +1,150 @@
+package com.ktb.chatapp.service.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ktb.chatapp.model.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.model.Session.SESSION_TTL;
+
+/**
+ * 세션 검증 결과의 노드 로컬 캐시
+ * 저장소에서 검증된 (userId, sessionId)를 valid-until까지 수 초간 보관해 소켓 이벤트마다의 저장소 조회를 없앤다.
+ * 세션 삭제(로그아웃, 중복 로그인, 토큰 갱신) 시 Redis pub/sub으로 폐기를 알려 다른 노드의 항목도 즉시 지운다.
+ * pub/sub 메시지를 놓쳐도 ttl이 지나면 저장소 검증으로 돌아간다.
+ */
+@Slf4j
+@Component
+public class SessionValidationCache {
+
+    private static final String REVOCATION_TOPIC = "session:revoked";
+    private static final long SESSION_TTL_MILLIS = DurationStyle.detectAndParse(SESSION_TTL).toMillis();
+
+    // 자기 노드가 보낸 폐기 메시지는 건너뛴다 (직후에 만든 새 세션을 지우지 않도록)
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Cache<String, Validated> validations;
+    private final RTopic revocationTopic;
+    private final SessionActivityBuffer activityBuffer;
+    private final Counter remoteRevocations;
+
+    private int listenerId = -1;
+
+    public SessionValidationCache(
+            RedissonClient redissonClient,
+            SessionActivityBuffer activityBuffer,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.session.validation-cache.enabled:true}") boolean enabled,
+            @Value("${chatapp.session.validation-cache.ttl:5s}") Duration ttl,
+            @Value("${chatapp.session.validation-cache.max-size:100000}") long maxSize) {
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.activityBuffer = activityBuffer;
+        this.revocationTopic = redissonClient.getTopic(REVOCATION_TOPIC, StringCodec.INSTANCE);
+        this.validations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, validations, "session.validation.cache");
+        this.remoteRevocations = Counter.builder("session.revocations.received")
+                .description("Session revocations received over Redis pub/sub")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            listenerId = revocationTopic.addListener(String.class, (channel, message) -> {
+                int separator = message.indexOf(':');
+                if (separator < 0 || message.startsWith(nodeId + ":")) {
+                    return;
+                }
+                remoteRevocations.increment();
+                invalidateLocal(message.substring(separator + 1));
+            });
+        } catch (Exception e) {
+            // Redis 장애 시에도 ttl로 수렴하므로 기동은 계속한다
+            log.error("Failed to subscribe session revocation topic", e);
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId >= 0) {
+            revocationTopic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * @return 캐시된 세션 (valid-until 이내이고 sessionId가 같을 때), 없으면 empty
+     */
+    public Optional<Session> get(String userId, String sessionId, long now) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Validated validated = validations.getIfPresent(userId);
+        if (validated == null || !validated.session().getSessionId().equals(sessionId)
+                || now >= validated.validUntil()) {
+            return Optional.empty();
+        }
+        return Optional.of(validated.session());
+    }
+
+    /**
+     * 저장소에서 검증된 세션을 기록한다. 세션 만료 시각을 넘겨 유효하다고 답하지 않도록 valid-until을 제한한다.
+     */
+    public void put(Session session, long verifiedAt) {
+        if (!enabled) {
+            return;
+        }
+        long validUntil = Math.min(verifiedAt + ttlMillis, session.getLastActivity() + SESSION_TTL_MILLIS);
+        validations.put(session.getUserId(), new Validated(session, validUntil));
+    }
+
+    /**
+     * 사용자의 캐시된 검증 결과를 이 노드와 다른 노드에서 모두 지운다.
+     */
+    public void revoke(String userId) {
+        invalidateLocal(userId);
+        if (!enabled) {
+            return;
+        }
+        try {
+            revocationTopic.publish(nodeId + ":" + userId);
+        } catch (Exception e) {
+            log.warn("Failed to publish session revocation - userId: {}", userId, e);
+        }
+    }
+
+    private void invalidateLocal(String userId) {
+        if (userId == null) {
+            return;
+        }
+        validations.invalidate(userId);
+        activityBuffer.evict(userId);
+    }
+
+    private record Validated(Session session, long validUntil) {
+    }
+}
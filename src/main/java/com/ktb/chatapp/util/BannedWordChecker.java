@@ -1,29 +1,249 @@
 package com.ktb.chatapp.util;
 
-import java.util.Locale;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.util.Assert;
 
+/**
+ * 금칙어 검사기
+ * 사전을 생성 시점에 Aho-Corasick 오토마톤으로 컴파일해 메시지를 한 번만 순회한다.
+ * 전이는 (state, char) 키의 open addressing 테이블에 두고, 정규화(NFKC 접기, 소문자화, 서식 문자 제거, 공백류 접기,
+ * 한글 자모 조합)는 {@link BannedWordNormalizer}로 순회 중 문자 단위로 수행해 오토마톤에 바로 넣는다.
+ * 검사 경로에서는 중간 문자열이나 객체를 할당하지 않는다.
+ * 사전 교체 시 새 오토마톤을 완성한 뒤 volatile 참조만 바꾸므로 검사가 블록되지 않는다.
+ */
 public class BannedWordChecker {
-    
-    private final Set<String> bannedWords;
-    
+
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final long NO_MATCH = -1L;
+
+    private volatile Automaton automaton;
+
     public BannedWordChecker(Set<String> bannedWords) {
-        this.bannedWords =
-                bannedWords.stream()
-                        .filter(word -> word != null && !word.isBlank())
-                        .map(word -> word.toLowerCase(Locale.ROOT))
-                        .collect(Collectors.toUnmodifiableSet());
-        Assert.notEmpty(this.bannedWords, "Banned words set must not be empty");
+        this.automaton = new Automaton(bannedWords);
+    }
+
+    /**
+     * 사전을 교체한다. 새 오토마톤은 호출 스레드에서 컴파일되고 완성된 뒤에 한 번에 교체되므로
+     * 진행 중인 검사는 이전 사전으로 끝까지 수행된다.
+     *
+     * @throws IllegalArgumentException 유효한 단어가 없는 경우 (기존 사전 유지)
+     */
+    public void replaceWords(Set<String> bannedWords) {
+        this.automaton = new Automaton(bannedWords);
     }
-    
+
     public boolean containsBannedWord(String message) {
         if (message == null || message.isBlank()) {
             return false;
         }
-        
-        String normalizedMessage = message.toLowerCase(Locale.ROOT);
-        return bannedWords.stream().anyMatch(normalizedMessage::contains);
+        return automaton.scan(message, NO_STATE) != NO_MATCH;
+    }
+
+    /**
+     * 처음 발견된 금칙어의 위치를 반환한다.
+     *
+     * @return 원본 메시지 기준 [start, end) 구간, 금칙어가 없으면 empty
+     */
+    public Optional<Match> findBannedWord(String message) {
+        if (message == null || message.isBlank()) {
+            return Optional.empty();
+        }
+        long packed = automaton.scan(message, NO_STATE);
+        if (packed == NO_MATCH) {
+            return Optional.empty();
+        }
+        // 정규화 기준 시작 위치를 원본 위치로 되돌리기 위해 일치한 경우에만 한 번 더 순회한다
+        int start = (int) automaton.scan(message, (int) (packed >>> 32));
+        return Optional.of(new Match(start, (int) packed));
+    }
+
+    public int getWordCount() {
+        return automaton.wordCount;
+    }
+
+    /**
+     * 컴파일된 불변 오토마톤, 사전 교체 시 통째로 바뀐다
+     */
+    private static final class Automaton {
+
+        private final long[] edgeKeys;
+        private final int[] edgeTargets;
+        private final int edgeMask;
+        private final int[] fail;
+        private final int[] matchLength;
+        private final int wordCount;
+
+        private Automaton(Set<String> bannedWords) {
+            Set<String> words = new LinkedHashSet<>();
+            for (String word : bannedWords) {
+                if (word != null && !word.isBlank()) {
+                    String normalized = BannedWordNormalizer.normalize(word);
+                    if (!normalized.isEmpty()) {
+                        words.add(normalized);
+                    }
+                }
+            }
+            Assert.notEmpty(words, "Banned words set must not be empty");
+            this.wordCount = words.size();
+
+            // 1. trie 구성 (생성 시점에만 사용하는 임시 구조)
+            List<Map<Character, Integer>> children = new ArrayList<>();
+            List<Integer> terminalLength = new ArrayList<>();
+            children.add(new HashMap<>());
+            terminalLength.add(0);
+            int edgeCount = 0;
+            for (String word : words) {
+                int state = ROOT;
+                for (int i = 0; i < word.length(); i++) {
+                    Integer next = children.get(state).get(word.charAt(i));
+                    if (next == null) {
+                        next = children.size();
+                        children.get(state).put(word.charAt(i), next);
+                        children.add(new HashMap<>());
+                        terminalLength.add(0);
+                        edgeCount++;
+                    }
+                    state = next;
+                }
+                terminalLength.set(state, word.length());
+            }
+
+            // 2. 전이 테이블 압축
+            int capacity = Integer.highestOneBit(Math.max(2, edgeCount * 2 - 1)) << 1;
+            this.edgeKeys = new long[capacity];
+            this.edgeTargets = new int[capacity];
+            this.edgeMask = capacity - 1;
+            for (int state = 0; state < children.size(); state++) {
+                for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+                    putEdge(state, edge.getKey(), edge.getValue());
+                }
+            }
+
+            // 3. BFS로 실패 링크와 출력 길이 계산
+            this.fail = new int[children.size()];
+            this.matchLength = new int[children.size()];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : children.get(ROOT).values()) {
+                matchLength[child] = terminalLength.get(child);
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+                    char c = edge.getKey();
+                    int child = edge.getValue();
+                    int f = fail[state];
+                    while (f != ROOT && transition(f, c) == NO_STATE) {
+                        f = fail[f];
+                    }
+                    int target = transition(f, c);
+                    fail[child] = target == NO_STATE ? ROOT : target;
+                    int own = terminalLength.get(child);
+                    matchLength[child] = own > 0 ? own : matchLength[fail[child]];
+                    queue.add(child);
+                }
+            }
+        }
+
+        /**
+         * 메시지를 정규화하며 오토마톤에 흘려 넣는다.
+         * 한글 자모 조합을 위해 정규화된 문자 하나를 pending으로 들고 있다가 다음 문자와 합쳐지지 않으면 방출한다.
+         *
+         * @param locate 0 이상이면 매칭 대신 해당 순번으로 방출된 문자의 원본 시작 위치를 반환한다
+         * @return (정규화 기준 시작 순번 << 32 | 원본 기준 끝 위치), 없으면 NO_MATCH
+         */
+        private long scan(CharSequence message, int locate) {
+            int state = ROOT;
+            int emitted = 0;
+            int pending = BannedWordNormalizer.NONE;
+            int pendingStart = 0;
+            int pendingEnd = 0;
+            int length = message.length();
+            for (int i = 0; i <= length; i++) {
+                int c = i < length ? BannedWordNormalizer.fold(message.charAt(i)) : BannedWordNormalizer.NONE;
+                if (c == BannedWordNormalizer.IGNORABLE) {
+                    continue;
+                }
+                int composed = BannedWordNormalizer.compose(pending, c);
+                if (composed != BannedWordNormalizer.NONE) {
+                    pending = composed;
+                    pendingEnd = i + 1;
+                    continue;
+                }
+                if (pending != BannedWordNormalizer.NONE) {
+                    if (emitted == locate) {
+                        return pendingStart;
+                    }
+                    state = step(state, (char) pending);
+                    emitted++;
+                    int matched = matchLength[state];
+                    if (locate < 0 && matched > 0) {
+                        return ((long) (emitted - matched) << 32) | pendingEnd;
+                    }
+                }
+                pending = c;
+                pendingStart = i;
+                pendingEnd = i + 1;
+            }
+            return NO_MATCH;
+        }
+
+        private int step(int state, char c) {
+            int next;
+            while ((next = transition(state, c)) == NO_STATE && state != ROOT) {
+                state = fail[state];
+            }
+            return next == NO_STATE ? ROOT : next;
+        }
+
+        private int transition(int state, char c) {
+            long key = edgeKey(state, c);
+            int slot = hash(key) & edgeMask;
+            while (true) {
+                long existing = edgeKeys[slot];
+                if (existing == key) {
+                    return edgeTargets[slot];
+                }
+                if (existing == 0L) {
+                    return NO_STATE;
+                }
+                slot = (slot + 1) & edgeMask;
+            }
+        }
+
+        private void putEdge(int state, char c, int target) {
+            long key = edgeKey(state, c);
+            int slot = hash(key) & edgeMask;
+            while (edgeKeys[slot] != 0L) {
+                slot = (slot + 1) & edgeMask;
+            }
+            edgeKeys[slot] = key;
+            edgeTargets[slot] = target;
+        }
+
+        // state + 1을 써서 0을 빈 슬롯 표시로 남긴다
+        private static long edgeKey(int state, char c) {
+            return ((long) (state + 1) << 16) | c;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * 금칙어 일치 구간 (하이라이트용)
+     */
+    public record Match(int start, int end) {
     }
 }
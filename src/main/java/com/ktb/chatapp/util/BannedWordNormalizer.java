@@ -0,0 +1,125 @@
+package com.ktb.chatapp.util;
+
+import java.text.Normalizer;
+
+/**
+ * 금칙어 검사용 문자 정규화
+ * BMP 문자마다 NFKC 단일 문자 매핑 + 소문자화 결과를 미리 계산해 두고, 검사 중에는 배열 조회만 한다.
+ * 전각/반각 문자, 호환 자모 등은 기본 문자로 접히고, 폭이 없는 서식 문자(ZWJ, ZWSP, soft hyphen 등)와
+ * 이체자 선택자는 무시 문자로 표시된다. 공백류(NBSP, 전각 공백, 한글 채움 문자 등)는 모두 ' '로 접어
+ * 단어 경계로 남기므로 금칙어가 두 단어에 걸쳐 매칭되지 않는다("has sand"의 "ass").
+ * 그 대가로 글자 사이에 공백을 넣은 입력("s p a m", "바 보")은 잡지 못한다. 한 글자 토큰의 연속을
+ * 합치면 "a s s" 같은 평범한 문장도 걸리므로 이 우회는 의도적으로 허용한다.
+ * 분리된 한글 자모(L+V, LV+T)는 {@link #compose}로 음절로 합친다.
+ */
+final class BannedWordNormalizer {
+
+    /** 무시할 문자 표시, 실제 U+FFFF는 비문자라 입력에 나올 일이 없다 */
+    static final int IGNORABLE = 0xFFFF;
+    static final int NONE = -1;
+
+    private static final int S_BASE = 0xAC00;
+    private static final int L_BASE = 0x1100;
+    private static final int V_BASE = 0x1161;
+    private static final int T_BASE = 0x11A7;
+    private static final int L_COUNT = 19;
+    private static final int V_COUNT = 21;
+    private static final int T_COUNT = 28;
+    private static final int N_COUNT = V_COUNT * T_COUNT;
+    private static final int S_COUNT = L_COUNT * N_COUNT;
+
+    private static final char[] FOLD = buildFoldTable();
+
+    private BannedWordNormalizer() {
+    }
+
+    /**
+     * @return 정규화된 문자, 무시할 문자면 IGNORABLE
+     */
+    static int fold(char c) {
+        return FOLD[c];
+    }
+
+    /**
+     * 앞 문자와 현재 문자가 한글 음절로 합쳐지면 합친 음절을 반환한다.
+     *
+     * @return 합쳐진 음절, 합쳐지지 않으면 NONE
+     */
+    static int compose(int previous, int current) {
+        if (previous == NONE || current == NONE) {
+            return NONE;
+        }
+        int lIndex = previous - L_BASE;
+        int vIndex = current - V_BASE;
+        if (lIndex >= 0 && lIndex < L_COUNT && vIndex >= 0 && vIndex < V_COUNT) {
+            return S_BASE + (lIndex * V_COUNT + vIndex) * T_COUNT;
+        }
+        int sIndex = previous - S_BASE;
+        int tIndex = current - T_BASE;
+        if (sIndex >= 0 && sIndex < S_COUNT && sIndex % T_COUNT == 0 && tIndex > 0 && tIndex < T_COUNT) {
+            return previous + tIndex;
+        }
+        return NONE;
+    }
+
+    /**
+     * 사전 단어를 메시지와 같은 규칙으로 정규화한다. 사전 컴파일 시점에만 사용한다.
+     */
+    static String normalize(String word) {
+        word = word.strip();
+        StringBuilder normalized = new StringBuilder(word.length());
+        int pending = NONE;
+        for (int i = 0; i <= word.length(); i++) {
+            int c = i < word.length() ? fold(word.charAt(i)) : NONE;
+            if (c == IGNORABLE) {
+                continue;
+            }
+            int composed = compose(pending, c);
+            if (composed != NONE) {
+                pending = composed;
+                continue;
+            }
+            if (pending != NONE) {
+                normalized.append((char) pending);
+            }
+            pending = c;
+        }
+        return normalized.toString();
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x10000];
+        for (int c = 0; c < table.length; c++) {
+            char ch = (char) c;
+            if (Character.isSurrogate(ch)) {
+                table[c] = ch;
+                continue;
+            }
+            String nfkc = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFKC);
+            char mapped = nfkc.length() == 1 ? nfkc.charAt(0) : ch;
+            if (isIgnorable(ch)) {
+                table[c] = (char) IGNORABLE;
+            } else if (isSeparator(ch, mapped)) {
+                table[c] = ' ';
+            } else {
+                table[c] = Character.toLowerCase(mapped);
+            }
+        }
+        return table;
+    }
+
+    private static boolean isIgnorable(char original) {
+        return Character.getType(original) == Character.FORMAT
+                || original == '\u034F'
+                || (original >= '\uFE00' && original <= '\uFE0F')
+                || original == IGNORABLE;
+    }
+
+    private static boolean isSeparator(char original, char mapped) {
+        return Character.isWhitespace(mapped)
+                || Character.isSpaceChar(mapped)
+                // 한글 채움 문자는 보이는 폭이 있어 공백과 같이 다룬다
+                || original == '\u3164'
+                || original == '\uFFA0';
+    }
+}
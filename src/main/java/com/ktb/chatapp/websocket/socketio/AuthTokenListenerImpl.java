@@ -3,11 +3,12 @@ package com.ktb.chatapp.websocket.socketio;
 import com.corundumstudio.socketio.AuthTokenListener;
 import com.corundumstudio.socketio.AuthTokenResult;
 import com.corundumstudio.socketio.SocketIOClient;
-import com.ktb.chatapp.model.User;
-import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.service.JwtService;
 import com.ktb.chatapp.service.SessionService;
 import com.ktb.chatapp.service.SessionValidationResult;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import com.ktb.chatapp.websocket.socketio.dispatch.SocketIOEventDispatcher;
 import com.ktb.chatapp.websocket.socketio.handler.ConnectionLoginHandler;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,10 @@ import org.springframework.stereotype.Component;
 /**
  * Socket.IO Authorization Handler
  * socket.handshake.auth.token과 sessionId를 처리한다.
+ *
+ * <p>netty-socketio는 인증 결과를 이벤트 루프에서 동기로 기다리므로 여기서는 JWT 서명 검증(CPU)만 수행하고,
+ * 세션 검증과 사용자 조회 등 블로킹 작업은 클라이언트 lane의 첫 작업으로 가상 스레드에서 실행한다.
+ * 같은 lane이므로 이후 이벤트는 인증 처리가 끝난 뒤에 실행되며, 실패 시 에러 이벤트 후 연결을 끊는다.
  */
 @Slf4j
 @Component
@@ -29,8 +34,9 @@ public class AuthTokenListenerImpl implements AuthTokenListener {
 
     private final JwtService jwtService;
     private final SessionService sessionService;
-    private final UserRepository userRepository;
+    private final NearCache nearCache;
     private final ObjectProvider<ConnectionLoginHandler> socketIOChatHandlerProvider;
+    private final SocketIOEventDispatcher dispatcher;
 
     @Override
     public AuthTokenResult getAuthTokenResult(Object _authToken, SocketIOClient client) {
@@ -52,30 +58,47 @@ public class AuthTokenListenerImpl implements AuthTokenListener {
                 return new AuthTokenResult(false, Map.of("message", "Invalid token"));
             }
 
+            dispatcher.dispatch(SocketIOEventDispatcher.AUTH_EVENT, client,
+                    () -> authorize(client, userId, sessionId));
+            return AuthTokenResult.AuthTokenResultSuccess;
+        } catch (Exception e) {
+            log.error("Socket.IO authentication error: {}", e.getMessage(), e);
+            return new AuthTokenResult(false, Map.of("message", e.getMessage()));
+        }
+    }
+
+    private void authorize(SocketIOClient client, String userId, String sessionId) {
+        try {
             // Validate session using SessionService
             SessionValidationResult validationResult =
                     sessionService.validateSession(userId, sessionId);
 
             if (!validationResult.isValid()) {
                 log.error("Session validation failed: {}", validationResult.getMessage());
-                return new AuthTokenResult(false, Map.of("message", "Invalid session"));
+                reject(client, "Invalid session");
+                return;
             }
 
-            // Load user from database
-            User user = userRepository.findById(userId).orElse(null);
+            // Load user from near-cache (MongoDB on miss)
+            CachedUser user = nearCache.findUser(userId).orElse(null);
             if (user == null) {
                 log.error("User not found: {}", userId);
-                return new AuthTokenResult(false, Map.of("message", "User not found"));
+                reject(client, "User not found");
+                return;
             }
 
-            log.info("Socket.IO connection authorized for user: {} ({})", user.getName(), userId);
+            log.info("Socket.IO connection authorized for user: {} ({})", user.name(), userId);
             
-            var socketUser = new SocketUser(user.getId(), user.getName(), sessionId, client.getSessionId().toString());
+            var socketUser = new SocketUser(user.id(), user.name(), sessionId, client.getSessionId().toString());
             socketIOChatHandlerProvider.getObject().onConnect(client, socketUser);
-            return AuthTokenResult.AuthTokenResultSuccess;
         } catch (Exception e) {
             log.error("Socket.IO authentication error: {}", e.getMessage(), e);
-            return new AuthTokenResult(false, Map.of("message", e.getMessage()));
+            reject(client, e.getMessage() != null ? e.getMessage() : "Authentication error");
         }
     }
+
+    private void reject(SocketIOClient client, String message) {
+        client.sendEvent(SocketIOEvents.ERROR, Map.of("message", message));
+        client.disconnect();
+    }
 }
@@ -0,0 +1,49 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.corundumstudio.socketio.protocol.JacksonJsonSupport;
+import com.fasterxml.jackson.databind.Module;
+import io.netty.buffer.ByteBufOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 사전 인코딩 이벤트를 지원하는 JsonSupport
+ * PacketEncoder는 클라이언트마다 {@code [name, ...args]}를 다시 직렬화하는데,
+ * 인자가 {@link PreEncodedEvent} 하나인 경우 Jackson을 거치지 않고
+ * 미리 만든 바이트를 채널의 pooled 버퍼에 그대로 기록한다.
+ */
+public class EncodeOnceJsonSupport extends JacksonJsonSupport {
+
+    public EncodeOnceJsonSupport(Module... modules) {
+        super(modules);
+    }
+
+    /**
+     * 이벤트를 한 번 인코딩한다. 일반 전송 경로와 동일한 ObjectMapper 설정을 사용한다.
+     *
+     * @return 인코딩된 이벤트, 바이너리 첨부가 필요한 payload면 null
+     */
+    public PreEncodedEvent encode(String event, Object data) throws IOException {
+        modifier.getSerializer().clear();
+        byte[] frame = objectMapper.writeValueAsBytes(List.of(event, data));
+        if (!getArrays().isEmpty()) {
+            // byte[] 필드는 바이너리 첨부로 분리되어야 하므로 사전 인코딩 대상이 아니다
+            modifier.getSerializer().clear();
+            return null;
+        }
+        return new PreEncodedEvent(event, frame);
+    }
+
+    @Override
+    public void writeValue(ByteBufOutputStream out, Object value) throws IOException {
+        if (value instanceof List<?> values
+                && values.size() == 2
+                && values.get(1) instanceof PreEncodedEvent encoded
+                && encoded.getName().equals(values.get(0))) {
+            modifier.getSerializer().clear();
+            out.buffer().writeBytes(encoded.frame());
+            return;
+        }
+        super.writeValue(out, value);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 미리 JSON으로 인코딩된 Socket.IO 이벤트 본문
+ * {@code ["eventName", payload]} 배열 전체를 UTF-8 바이트로 한 번만 직렬화해 두고,
+ * 클라이언트별 인코딩 시 {@link EncodeOnceJsonSupport}가 바이트를 그대로 복사한다.
+ * Redisson pub/sub으로 다른 노드에 전달될 때도 바이트 배열 그대로 전송되어 재직렬화가 없다.
+ */
+public final class PreEncodedEvent implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final byte[] frame;
+
+    PreEncodedEvent(String name, byte[] frame) {
+        this.name = name;
+        this.frame = frame;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return frame.length;
+    }
+
+    byte[] frame() {
+        return frame;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방 단위 fan-out 브로드캐스터
+ * 이벤트를 한 번만 JSON으로 인코딩한 뒤 방의 모든 로컬 클라이언트와
+ * Redis pub/sub 전달에 같은 바이트를 사용한다. 인원이 많은 방에서
+ * 클라이언트 수만큼 반복되던 MessageResponse 직렬화를 제거한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class RoomBroadcaster {
+
+    private final SocketIOServer socketIOServer;
+    private final EncodeOnceJsonSupport jsonSupport;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> payloadSizes = new ConcurrentHashMap<>();
+    private final Counter fallbackCounter;
+
+    public RoomBroadcaster(SocketIOServer socketIOServer,
+                           EncodeOnceJsonSupport jsonSupport,
+                           MeterRegistry meterRegistry) {
+        this.socketIOServer = socketIOServer;
+        this.jsonSupport = jsonSupport;
+        this.meterRegistry = meterRegistry;
+        this.fallbackCounter = Counter.builder("socketio.broadcast.encode.fallback")
+                .description("Broadcasts sent without pre-encoding")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 방 전체에 이벤트를 전송한다. 사전 인코딩에 실패하면 기존 경로로 전송한다.
+     */
+    public void broadcast(String roomId, String event, Object data) {
+        socketIOServer.getRoomOperations(roomId).sendEvent(event, encode(event, data));
+    }
+
+    private Object encode(String event, Object data) {
+        try {
+            PreEncodedEvent encoded = jsonSupport.encode(event, data);
+            if (encoded != null) {
+                payloadSize(event).record(encoded.size());
+                return encoded;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to pre-encode broadcast - event: {}", event, e);
+        }
+        fallbackCounter.increment();
+        return data;
+    }
+
+    private DistributionSummary payloadSize(String event) {
+        return payloadSizes.computeIfAbsent(event,
+                key -> DistributionSummary.builder("socketio.broadcast.payload.bytes")
+                        .description("Encoded size of broadcast event payloads")
+                        .baseUnit("bytes")
+                        .tag("event", event)
+                        .register(meterRegistry));
+    }
+}
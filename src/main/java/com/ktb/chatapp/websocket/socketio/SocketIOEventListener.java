@@ -18,6 +18,7 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 public class SocketIOEventListener {
 
     private final SocketIOServer socketIOServer;
+    private final RoomBroadcaster roomBroadcaster;
 
     @EventListener
     public void handleSessionEndedEvent(SessionEndedEvent event) {
@@ -79,8 +80,7 @@ public class SocketIOEventListener {
                 "isCodeBlock", event.isCodeBlock(),
                 "isComplete", false
             );
-            socketIOServer.getRoomOperations(event.getRoomId())
-                    .sendEvent(AI_MESSAGE_CHUNK, data);
+            roomBroadcaster.broadcast(event.getRoomId(), AI_MESSAGE_CHUNK, data);
         } catch (Exception e) {
             log.error("aiMessageChunk 이벤트 발송 실패: roomId={}", event.getRoomId(), e);
         }
@@ -13,7 +13,8 @@ public final class SocketIOEvents {
 
     /**
      * 채팅 메시지 전송
-     * Payload: { room, type, content, fileData }
+     * Payload: { room, type, content, fileData, clientMessageKey }
+     * Ack: { ok, _id, timestamp, duplicate } 또는 { ok: false, code, message }
      */
     public static final String CHAT_MESSAGE = "chatMessage";
 
@@ -46,6 +47,12 @@ public final class SocketIOEvents {
      * Payload: { messageId, reaction, type }
      */
     public static final String MESSAGE_REACTION = "messageReaction";
+
+    /**
+     * 메시지 수신 확인 (선택, 전송→수신 지연 측정용)
+     * Payload: { messageId, room, timestamp }
+     */
+    public static final String MESSAGE_DELIVERED = "messageDelivered";
     
     // ============================================
     // Server → Client Events (전송 이벤트)
@@ -8,6 +8,8 @@ import com.ktb.chatapp.model.AiType;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.MessageType;
 import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.MessageHistoryWriter;
+import com.ktb.chatapp.websocket.socketio.handler.MessageResponseMapper;
 import com.ktb.chatapp.websocket.socketio.handler.StreamingSession;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,14 +33,20 @@ public class AiService {
     private final ChatClient chatClient;
     private final ApplicationEventPublisher eventPublisher;
     private final MessageRepository messageRepository;
+    private final MessageResponseMapper messageResponseMapper;
+    private final MessageHistoryWriter messageHistoryWriter;
 
     public AiService(
             ChatClient.Builder chatClientBuilder,
             ApplicationEventPublisher eventPublisher,
-            MessageRepository messageRepository) {
+            MessageRepository messageRepository,
+            MessageResponseMapper messageResponseMapper,
+            MessageHistoryWriter messageHistoryWriter) {
         this.chatClient = chatClientBuilder.build();
         this.eventPublisher = eventPublisher;
         this.messageRepository = messageRepository;
+        this.messageResponseMapper = messageResponseMapper;
+        this.messageHistoryWriter = messageHistoryWriter;
     }
 
     public void handleAIMentions(String roomId, String userId, MessageContent messageContent) {
@@ -110,6 +118,7 @@ public class AiService {
             Message savedMessage = messageRepository.save(getMessage(event));
             log.info("AI message saved - messageId: {}, savedId: {}, roomId: {}",
                 event.getMessageId(), savedMessage.getId(), event.getRoomId());
+            messageHistoryWriter.append(messageResponseMapper.mapToMessageResponse(savedMessage, null, null));
 
             // savedMessageId를 포함한 새로운 이벤트 발행
             eventPublisher.publishEvent(new AiMessageSavedEvent(
@@ -0,0 +1,143 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIOServer;
+import com.corundumstudio.socketio.annotation.OnConnect;
+import com.corundumstudio.socketio.annotation.OnDisconnect;
+import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * SpringAnnotationScanner 대체 구현
+ * {@link OnEvent}/{@link OnConnect}/{@link OnDisconnect} 메서드를 찾아 리스너로 등록하되,
+ * 메서드 호출은 {@link SocketIOEventDispatcher}를 통해 가상 스레드에서 실행한다.
+ *
+ * <p>핸들러가 비동기로 실행되므로 서버는 AckMode.MANUAL로 두고,
+ * 핸들러가 ack를 보내지 않은 채 정상 종료되면 여기서 빈 ack를 보낸다(AUTO_SUCCESS_ONLY 동작).
+ *
+ * <p>메서드(없으면 클래스)에 {@link RateLimit}이 있으면 핸들러 실행 전에 {@link SocketEventRateLimiter}로
+ * 이벤트별 한도를 확인하고, 초과한 요청은 핸들러를 호출하지 않는다.
+ */
+@Slf4j
+public class DispatchingAnnotationScanner implements BeanPostProcessor {
+
+    private final SocketIOServer socketIOServer;
+    private final SocketIOEventDispatcher dispatcher;
+    private final SocketEventRateLimiter rateLimiter;
+
+    public DispatchingAnnotationScanner(SocketIOServer socketIOServer, SocketIOEventDispatcher dispatcher,
+                                        SocketEventRateLimiter rateLimiter) {
+        this.socketIOServer = socketIOServer;
+        this.dispatcher = dispatcher;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        boolean[] registered = {false};
+        ReflectionUtils.doWithMethods(targetClass, method -> {
+            register(bean, targetClass, method);
+            registered[0] = true;
+        }, DispatchingAnnotationScanner::isListenerMethod);
+        if (registered[0]) {
+            log.info("{} bean listeners added", beanName);
+        }
+        return bean;
+    }
+
+    private static boolean isListenerMethod(Method method) {
+        return method.isAnnotationPresent(OnEvent.class)
+                || method.isAnnotationPresent(OnConnect.class)
+                || method.isAnnotationPresent(OnDisconnect.class);
+    }
+
+    private void register(Object bean, Class<?> targetClass, Method method) {
+        ReflectionUtils.makeAccessible(method);
+        OnEvent onEvent = method.getAnnotation(OnEvent.class);
+        if (onEvent != null) {
+            String event = onEvent.value();
+            if (event == null || event.isBlank()) {
+                throw new IllegalArgumentException("OnEvent \"value\" parameter is required: " + method);
+            }
+            RateLimit rateLimit = resolveRateLimit(targetClass, method);
+            socketIOServer.addEventListener(event, dataType(method), (client, data, ackRequest) ->
+                    dispatcher.dispatch(event, client, () -> {
+                        // 한도 확인은 저장소 호출이 있을 수 있어 Netty 스레드가 아닌 가상 스레드에서 한다
+                        if (rateLimit != null && !rateLimiter.tryAcquire(event, rateLimit, client, ackRequest)) {
+                            return;
+                        }
+                        invoke(bean, method, client, data, ackRequest);
+                        // 핸들러가 직접 ack하지 않았으면 성공 ack 전송 (이미 보냈으면 무시됨)
+                        ackRequest.sendAckData();
+                    }));
+        }
+        if (method.isAnnotationPresent(OnConnect.class)) {
+            socketIOServer.addConnectListener(client -> dispatcher.dispatch(
+                    SocketIOEventDispatcher.CONNECT_EVENT, client,
+                    () -> invoke(bean, method, client, null, null)));
+        }
+        if (method.isAnnotationPresent(OnDisconnect.class)) {
+            socketIOServer.addDisconnectListener(client -> dispatcher.dispatchDisconnect(client,
+                    () -> invoke(bean, method, client, null, null)));
+        }
+    }
+
+    private static RateLimit resolveRateLimit(Class<?> targetClass, Method method) {
+        RateLimit methodRateLimit = AnnotatedElementUtils.findMergedAnnotation(method, RateLimit.class);
+        if (methodRateLimit != null) {
+            return methodRateLimit;
+        }
+        return AnnotatedElementUtils.findMergedAnnotation(targetClass, RateLimit.class);
+    }
+
+    /**
+     * SocketIOClient, AckRequest를 제외한 첫 번째 파라미터를 이벤트 데이터 타입으로 사용한다.
+     */
+    private static Class<?> dataType(Method method) {
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!SocketIOClient.class.equals(type) && !AckRequest.class.equals(type)) {
+                return type;
+            }
+        }
+        return Void.class;
+    }
+
+    private static void invoke(Object bean, Method method, SocketIOClient client, Object data, AckRequest ackRequest) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (SocketIOClient.class.equals(parameterTypes[i])) {
+                args[i] = client;
+            } else if (AckRequest.class.equals(parameterTypes[i])) {
+                args[i] = ackRequest;
+            } else {
+                args[i] = data;
+            }
+        }
+        try {
+            method.invoke(bean, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
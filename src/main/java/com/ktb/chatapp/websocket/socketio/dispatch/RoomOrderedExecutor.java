@@ -0,0 +1,173 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * roomId 기준 순서 보장 실행기
+ * roomId 해시로 N개의 lane 중 하나를 고르고, lane마다 단일 consumer가 적재 순서대로 실행한다.
+ * 같은 방의 저장/브로드캐스트는 도착 순서를 지키고, 다른 방은 병렬로 처리된다.
+ *
+ * <p>lane별 적체 수(socketio.room_lanes.backlog)와 대기 시간(socketio.room_lanes.wait, max 포함)을
+ * 노출해 hot room이 몰린 lane을 확인할 수 있다.
+ * lane에는 순서가 필요한 짧은 작업만 올린다. 외부 저장소 대기처럼 오래 걸리는 작업은 lane 밖에서 기다린다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class RoomOrderedExecutor {
+
+    private final Lane[] lanes;
+    private final Duration callTimeout;
+    private volatile boolean running;
+
+    public RoomOrderedExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.socketio.room-lanes:64}") int laneCount,
+            @Value("${chatapp.socketio.room-lane-call-timeout-ms:10000}") long callTimeoutMs) {
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+        this.lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Lane lane : lanes) {
+            lane.consumer = Thread.ofVirtual()
+                    .name("room-lane-" + lane.index)
+                    .start(lane::runLoop);
+        }
+        log.info("Room ordered executor started - lanes: {}", lanes.length);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            if (lane.consumer != null) {
+                lane.consumer.join(Duration.ofSeconds(5));
+            }
+        }
+    }
+
+    /**
+     * 방 lane에 작업을 적재한다.
+     *
+     * @return 작업 완료 시 완료되는 future
+     */
+    public <T> CompletableFuture<T> submit(String roomId, Supplier<T> task) {
+        Lane lane = laneOf(roomId);
+        if (lane == null || Thread.currentThread() == lane.consumer || !running) {
+            // roomId가 없거나 같은 lane 안에서 재진입한 경우 교착을 피하기 위해 바로 실행한다
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (Throwable e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        lane.queue.add(new LaneTask(() -> future.complete(task.get()), future, System.nanoTime()));
+        return future;
+    }
+
+    /**
+     * 방 lane에서 작업을 실행하고 완료될 때까지 기다린다.
+     * 호출 스레드는 가상 스레드이므로 대기 비용이 작고, 클라이언트별 처리 순서도 유지된다.
+     * call-timeout 안에 끝나지 않으면 호출자는 실패로 반환한다. 작업 자체는 lane에서 계속 실행된다.
+     */
+    public <T> T call(String roomId, Supplier<T> task) {
+        try {
+            return submit(roomId, task)
+                    .orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("방 작업 대기 시간이 초과되었습니다.", e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    public void run(String roomId, Runnable task) {
+        call(roomId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    private Lane laneOf(String roomId) {
+        if (roomId == null) {
+            return null;
+        }
+        return lanes[Math.floorMod(roomId.hashCode(), lanes.length)];
+    }
+
+    private final class Lane {
+        private final int index;
+        private final BlockingQueue<LaneTask> queue = new LinkedBlockingQueue<>();
+        private final Timer waitTimer;
+        private volatile Thread consumer;
+
+        Lane(int index, MeterRegistry meterRegistry) {
+            this.index = index;
+            String tag = Integer.toString(index);
+            Gauge.builder("socketio.room_lanes.backlog", queue, BlockingQueue::size)
+                    .description("Tasks waiting in a room lane")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("socketio.room_lanes.wait")
+                    .description("Time a task waits in its room lane before running")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+        }
+
+        private void runLoop() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    LaneTask task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    waitTimer.record(System.nanoTime() - task.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                    try {
+                        task.body().run();
+                    } catch (Throwable e) {
+                        // Error도 lane을 멈추지 않도록 작업 실패로만 전달한다
+                        task.future().completeExceptionally(e);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private record LaneTask(Runnable body, CompletableFuture<?> future, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.ktb.chatapp.annotation.RateLimit;
+import com.ktb.chatapp.dto.ApiErrorCode;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import com.ktb.chatapp.service.RateLimitClientId;
+import com.ktb.chatapp.service.RateLimitService;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.ERROR;
+
+/**
+ * Socket.IO 이벤트용 {@link RateLimit} 적용기
+ * DispatchingAnnotationScanner가 @RateLimit이 붙은 @OnEvent 핸들러를 실행하기 전에 호출한다.
+ * 한도는 이벤트별로 따로 센다. 어노테이션 값은 {@code chatapp.socketio.rate-limit.max-requests.<event>}로
+ * 덮어쓸 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class SocketEventRateLimiter {
+
+    private static final String MAX_REQUESTS_PREFIX = "chatapp.socketio.rate-limit.max-requests.";
+
+    private final RateLimitService rateLimitService;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public SocketEventRateLimiter(
+            RateLimitService rateLimitService, Environment environment, MeterRegistry meterRegistry) {
+        this.rateLimitService = rateLimitService;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 요청 한 건을 센다. 한도를 넘으면 클라이언트에 에러를 보내고 false를 반환한다.
+     */
+    public boolean tryAcquire(String event, RateLimit rateLimit, SocketIOClient client, AckRequest ackRequest) {
+        int maxRequests = environment.getProperty(
+                MAX_REQUESTS_PREFIX + event, Integer.class, rateLimit.maxRequests());
+        Duration window = Duration.ofSeconds(rateLimit.windowSeconds());
+        String clientId = "socket:" + event + ":" + generateClientId(client, rateLimit.scope());
+
+        RateLimitCheckResult result = rateLimitService.checkRateLimit(clientId, maxRequests, window);
+        if (result.allowed()) {
+            return true;
+        }
+
+        rejections.computeIfAbsent(event, key -> Counter.builder("socketio.ratelimit.rejected")
+                .description("Socket.IO events rejected by rate limit")
+                .tag("event", key)
+                .register(meterRegistry)).increment();
+        log.warn("Rate limit exceeded for client: {} on event: {}, retryAfter: {}s",
+                clientId, event, result.retryAfterSeconds());
+
+        var errorCode = ApiErrorCode.RATE_LIMIT_EXCEEDED;
+        Map<String, Object> error = Map.of(
+                "code", errorCode.getCode(),
+                "message", errorCode.getMessage(),
+                "event", event,
+                "retryAfter", result.retryAfterSeconds());
+        client.sendEvent(ERROR, error);
+        if (ackRequest != null && ackRequest.isAckRequested()) {
+            Map<String, Object> payload = new HashMap<>(error);
+            payload.put("ok", false);
+            ackRequest.sendAckData(payload);
+        }
+        return false;
+    }
+
+    String generateClientId(SocketIOClient client, RateLimit.LimitScope scope) {
+        SocketUser user = client.get("user");
+        return RateLimitClientId.of(scope, getClientIpAddress(client), user != null ? user.id() : null);
+    }
+
+    private String getClientIpAddress(SocketIOClient client) {
+        var headers = client.getHandshakeData() != null ? client.getHandshakeData().getHttpHeaders() : null;
+        SocketAddress remoteAddress = client.getRemoteAddress();
+        String remote = remoteAddress instanceof InetSocketAddress inetAddress
+                ? inetAddress.getHostString()
+                : String.valueOf(remoteAddress);
+        if (headers == null) {
+            return remote;
+        }
+        return RateLimitClientId.clientIp(headers.get("X-Forwarded-For"), headers.get("X-Real-IP"), remote);
+    }
+}
@@ -0,0 +1,221 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Socket.IO 이벤트 핸들러 실행기
+ * Netty 워커 스레드에서 호출된 핸들러 본문을 가상 스레드로 넘겨 MongoDB/Redis 블로킹 호출이
+ * 같은 이벤트 루프의 다른 소켓을 막지 않도록 한다.
+ *
+ * <ul>
+ *     <li>클라이언트별 lane에서 순서대로 실행하므로 한 소켓의 이벤트 순서는 유지된다.</li>
+ *     <li>이벤트 타입별 동시 실행 수를 세마포어로 제한한다.
+ *         ({@code chatapp.socketio.dispatch.max-concurrency.<event>})</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class SocketIOEventDispatcher {
+
+    public static final String AUTH_EVENT = "auth";
+    public static final String CONNECT_EVENT = "connect";
+    public static final String DISCONNECT_EVENT = "disconnect";
+
+    private static final String MAX_CONCURRENCY_PREFIX = "chatapp.socketio.dispatch.max-concurrency.";
+    private static final Duration CLOSED_SESSION_TTL = Duration.ofMinutes(1);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxConcurrency;
+    private final ExecutorService executor;
+    private final Map<UUID, ClientLane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, EventMeters> events = new ConcurrentHashMap<>();
+    /** 종료 처리가 끝난 세션. 늦게 도착한 이벤트가 lane을 다시 만들지 않도록 잠시 기억한다 */
+    private final Cache<UUID, Boolean> closedSessions = Caffeine.newBuilder()
+            .expireAfterWrite(CLOSED_SESSION_TTL)
+            .build();
+
+    public SocketIOEventDispatcher(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.socketio.dispatch.default-max-concurrency:256}") int defaultMaxConcurrency) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("socketio-handler-", 0).factory());
+
+        Gauge.builder("socketio.dispatch.lanes", lanes, Map::size)
+                .description("Clients with a Socket.IO handler lane")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Socket.IO handler executor did not terminate in time");
+        }
+    }
+
+    /**
+     * 핸들러 본문을 클라이언트 lane에 적재하고 즉시 반환한다.
+     *
+     * @param event  이벤트 이름 (동시 실행 제한과 메트릭 태그에 사용)
+     * @param client 이벤트를 보낸 클라이언트
+     * @param body   가상 스레드에서 실행할 핸들러 본문
+     */
+    public void dispatch(String event, SocketIOClient client, Runnable body) {
+        EventMeters meters = meters(event);
+        long receivedAt = System.nanoTime();
+        Runnable task = () -> execute(event, meters, receivedAt, body);
+        ClientLane lane = lanes.computeIfAbsent(client.getSessionId(),
+                id -> closedSessions.getIfPresent(id) == null ? new ClientLane() : null);
+        if (lane != null) {
+            lane.submit(task);
+        } else {
+            // 종료 처리 이후 도착한 이벤트는 새 lane 없이 바로 실행한다
+            executor.execute(task);
+        }
+        meters.eventLoop.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 연결 종료 처리를 lane의 마지막 작업으로 실행하고 lane을 정리한다.
+     */
+    public void dispatchDisconnect(SocketIOClient client, Runnable body) {
+        UUID sessionId = client.getSessionId();
+        dispatch(DISCONNECT_EVENT, client, () -> {
+            try {
+                body.run();
+            } finally {
+                ClientLane lane = lanes.get(sessionId);
+                closedSessions.put(sessionId, Boolean.TRUE);
+                if (lane != null) {
+                    lane.closed = true;
+                    lanes.remove(sessionId, lane);
+                }
+            }
+        });
+    }
+
+    private void execute(String event, EventMeters meters, long receivedAt, Runnable body) {
+        try {
+            meters.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Socket.IO handler interrupted while queued - event: {}", event);
+            return;
+        }
+        meters.queued.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+        try {
+            meters.execution.record(body);
+        } catch (Throwable e) {
+            // Error도 lane을 멈추지 않도록 로그만 남긴다
+            log.error("Socket.IO handler failed - event: {}", event, e);
+        } finally {
+            meters.permits.release();
+        }
+    }
+
+    private EventMeters meters(String event) {
+        return events.computeIfAbsent(event, key -> {
+            int maxConcurrency = environment.getProperty(
+                    MAX_CONCURRENCY_PREFIX + event, Integer.class, defaultMaxConcurrency);
+            return new EventMeters(event, maxConcurrency);
+        });
+    }
+
+    /**
+     * 한 클라이언트의 핸들러를 순서대로 실행하는 직렬 큐
+     * 적재된 작업이 있을 때만 가상 스레드 하나가 큐를 비운다.
+     */
+    private final class ClientLane {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        void submit(Runnable task) {
+            if (closed) {
+                // 종료 처리 이후 도착한 이벤트는 새 lane 없이 바로 실행한다
+                executor.execute(task);
+                return;
+            }
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private final class EventMeters {
+        private final Semaphore permits;
+        private final Timer queued;
+        private final Timer eventLoop;
+        private final Timer execution;
+
+        EventMeters(String event, int maxConcurrency) {
+            this.permits = new Semaphore(maxConcurrency);
+            this.queued = Timer.builder("socketio.dispatch.queued.time")
+                    .description("Time from event receipt until the handler starts")
+                    .tag("event", event)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.eventLoop = Timer.builder("socketio.dispatch.eventloop.time")
+                    .description("Time the receiving Netty thread spends dispatching the event")
+                    .tag("event", event)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.execution = Timer.builder("socketio.dispatch.execution.time")
+                    .description("Handler execution time on the virtual thread")
+                    .tag("event", event)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("socketio.dispatch.active", permits, p -> maxConcurrency - p.availablePermits())
+                    .description("Handlers currently running per event type")
+                    .tag("event", event)
+                    .register(meterRegistry);
+        }
+    }
+}
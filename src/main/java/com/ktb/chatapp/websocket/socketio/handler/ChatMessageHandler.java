@@ -1,30 +1,35 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
+import com.corundumstudio.socketio.AckRequest;
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.ChatMessageRequest;
 import com.ktb.chatapp.dto.FileResponse;
 import com.ktb.chatapp.dto.MessageContent;
 import com.ktb.chatapp.dto.MessageResponse;
-import com.ktb.chatapp.dto.UserResponse;
 import com.ktb.chatapp.model.*;
 import com.ktb.chatapp.repository.FileRepository;
-import com.ktb.chatapp.repository.MessageRepository;
-import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.service.*;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import com.ktb.chatapp.service.message.MessageDedupStore;
+import com.ktb.chatapp.service.message.MessagePersistencePipeline;
 import com.ktb.chatapp.util.BannedWordChecker;
+import com.ktb.chatapp.websocket.socketio.RoomBroadcaster;
 import com.ktb.chatapp.websocket.socketio.ai.AiService;
+import com.ktb.chatapp.websocket.socketio.dispatch.RoomOrderedExecutor;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.ktb.chatapp.websocket.socketio.handler.ChatMessageMetrics.Stage;
 import io.micrometer.core.instrument.Timer;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
@@ -35,97 +40,83 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class ChatMessageHandler {
-    private final SocketIOServer socketIOServer;
-    private final MessageRepository messageRepository;
-    private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final RoomBroadcaster roomBroadcaster;
+    private final RoomOrderedExecutor roomOrderedExecutor;
+    private final MessagePersistencePipeline messagePersistencePipeline;
+    private final NearCache nearCache;
     private final FileRepository fileRepository;
     private final AiService aiService;
     private final SessionService sessionService;
     private final BannedWordChecker bannedWordChecker;
-    private final RateLimitService rateLimitService;
-    private final MeterRegistry meterRegistry;
-    private final MessageHistoryStore messageHistoryStore;
+    private final ChatMessageMetrics metrics;
+    private final MessageHistoryWriter messageHistoryWriter;
+    private final MessageDedupStore messageDedupStore;
+
+    /** 방별 마지막 브로드캐스트. 저장 완료가 뒤바뀌어도 같은 방의 브로드캐스트는 적재 순서대로 나간다 */
+    private final Map<String, CompletableFuture<Void>> broadcastTails = new ConcurrentHashMap<>();
     
     @OnEvent(CHAT_MESSAGE)
-    public void handleChatMessage(SocketIOClient client, ChatMessageRequest data) {
-        Timer.Sample timerSample = Timer.start(meterRegistry);
+    @RateLimit(maxRequests = 10000, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
+    public void handleChatMessage(SocketIOClient client, ChatMessageRequest data, AckRequest ackRequest) {
+        Timer.Sample timerSample = metrics.startProcessing();
 
         if (data == null) {
-            recordError("null_data");
-            client.sendEvent(ERROR, Map.of(
+            metrics.recordError("null_data");
+            sendError(client, ackRequest, Map.of(
                     "code", "MESSAGE_ERROR",
                     "message", "메시지 데이터가 없습니다."
             ));
-            timerSample.stop(createTimer("error", "null_data"));
+            metrics.stopProcessing(timerSample, "error", "null_data");
             return;
         }
 
         var socketUser = (SocketUser) client.get("user");
 
         if (socketUser == null) {
-            recordError("session_null");
-            client.sendEvent(ERROR, Map.of(
+            metrics.recordError("session_null");
+            sendError(client, ackRequest, Map.of(
                     "code", "SESSION_EXPIRED",
                     "message", "세션이 만료되었습니다. 다시 로그인해주세요."
             ));
-            timerSample.stop(createTimer("error", "session_null"));
+            metrics.stopProcessing(timerSample, "error", "session_null");
             return;
         }
 
-        SessionValidationResult validation =
-                sessionService.validateSession(socketUser.id(), socketUser.authSessionId());
+        SessionValidationResult validation = metrics.time(Stage.SESSION_VALIDATION,
+                () -> sessionService.validateSession(socketUser.id(), socketUser.authSessionId()));
         if (!validation.isValid()) {
-            recordError("session_expired");
-            client.sendEvent(ERROR, Map.of(
+            metrics.recordError("session_expired");
+            sendError(client, ackRequest, Map.of(
                     "code", "SESSION_EXPIRED",
                     "message", "세션이 만료되었습니다. 다시 로그인해주세요."
             ));
-            timerSample.stop(createTimer("error", "session_expired"));
+            metrics.stopProcessing(timerSample, "error", "session_expired");
             return;
         }
 
-        // Rate limit check
-        RateLimitCheckResult rateLimitResult =
-                rateLimitService.checkRateLimit(socketUser.id(), 10000, Duration.ofMinutes(1));
-        if (!rateLimitResult.allowed()) {
-            recordError("rate_limit_exceeded");
-            Counter.builder("socketio.messages.rate_limit")
-                    .description("Socket.IO rate limit exceeded count")
-                    .register(meterRegistry)
-                    .increment();
-            client.sendEvent(ERROR, Map.of(
-                    "code", "RATE_LIMIT_EXCEEDED",
-                    "message", "메시지 전송 횟수 제한을 초과했습니다. 잠시 후 다시 시도해주세요.",
-                    "retryAfter", rateLimitResult.retryAfterSeconds()
-            ));
-            log.warn("Rate limit exceeded for user: {}, retryAfter: {}s",
-                    socketUser.id(), rateLimitResult.retryAfterSeconds());
-            timerSample.stop(createTimer("error", "rate_limit"));
-            return;
-        }
-        
         try {
-            User sender = userRepository.findById(socketUser.id()).orElse(null);
+            CachedUser sender = metrics.time(Stage.USER_LOOKUP,
+                    () -> nearCache.findUser(socketUser.id()).orElse(null));
             if (sender == null) {
-                recordError("user_not_found");
-                client.sendEvent(ERROR, Map.of(
+                metrics.recordError("user_not_found");
+                sendError(client, ackRequest, Map.of(
                     "code", "MESSAGE_ERROR",
                     "message", "User not found"
                 ));
-                timerSample.stop(createTimer("error", "user_not_found"));
+                metrics.stopProcessing(timerSample, "error", "user_not_found");
                 return;
             }
 
             String roomId = data.getRoom();
-            Room room = roomRepository.findById(roomId).orElse(null);
-            if (room == null || !room.getParticipantIds().contains(socketUser.id())) {
-                recordError("room_access_denied");
-                client.sendEvent(ERROR, Map.of(
+            CachedRoom room = metrics.time(Stage.ROOM_LOOKUP,
+                    () -> nearCache.findRoom(roomId).orElse(null));
+            if (room == null || !room.hasParticipant(socketUser.id())) {
+                metrics.recordError("room_access_denied");
+                sendError(client, ackRequest, Map.of(
                     "code", "MESSAGE_ERROR",
                     "message", "채팅방 접근 권한이 없습니다."
                 ));
-                timerSample.stop(createTimer("error", "room_access_denied"));
+                metrics.stopProcessing(timerSample, "error", "room_access_denied");
                 return;
             }
 
@@ -134,13 +125,15 @@ public class ChatMessageHandler {
             log.debug("Message received - type: {}, room: {}, userId: {}, hasFileData: {}",
                 data.getMessageType(), roomId, socketUser.id(), data.hasFileData());
 
-            if (bannedWordChecker.containsBannedWord(messageContent.getTrimmedContent())) {
-                recordError("banned_word");
-                client.sendEvent(ERROR, Map.of(
+            boolean banned = metrics.time(Stage.BANNED_WORD,
+                    () -> bannedWordChecker.containsBannedWord(messageContent.getTrimmedContent()));
+            if (banned) {
+                metrics.recordError("banned_word");
+                sendError(client, ackRequest, Map.of(
                         "code", "MESSAGE_REJECTED",
                         "message", "금칙어가 포함된 메시지는 전송할 수 없습니다."
                 ));
-                timerSample.stop(createTimer("error", "banned_word"));
+                metrics.stopProcessing(timerSample, "error", "banned_word");
                 return;
             }
 
@@ -153,36 +146,165 @@ public class ChatMessageHandler {
 
             if (message == null) {
                 log.warn("Empty message - ignoring. room: {}, userId: {}, messageType: {}", roomId, socketUser.id(), messageType);
-                timerSample.stop(createTimer("ignored", messageType));
+                metrics.stopProcessing(timerSample, "ignored", messageType);
                 return;
             }
 
-            Message savedMessage = messageRepository.save(message);
-            MessageResponse messageResponse = createMessageResponse(savedMessage, sender);
+            String clientMessageKey = data.hasClientMessageKey() ? data.getClientMessageKey().trim() : null;
+
+            if (clientMessageKey != null) {
+                MessageDedupStore.Claim claim = metrics.time(Stage.DEDUP,
+                        () -> messageDedupStore.claim(roomId, socketUser.id(), clientMessageKey));
+                if (claim.state() == MessageDedupStore.Claim.State.COMPLETED) {
+                    // 재시도 요청: 저장/브로드캐스트 없이 기존 메시지를 발신자에게만 다시 보낸다
+                    metrics.recordDuplicate();
+                    client.sendEvent(MESSAGE, claim.existing());
+                    sendAck(ackRequest, claim.existing(), true);
+                    metrics.stopProcessing(timerSample, "duplicate", messageType);
+                    log.debug("Duplicate message ignored - messageId: {}, room: {}, clientMessageKey: {}",
+                            claim.existing().getId(), roomId, clientMessageKey);
+                    return;
+                }
+                if (claim.state() == MessageDedupStore.Claim.State.PENDING) {
+                    // 같은 키의 최초 요청이 아직 저장 중이다. 결과는 그 요청의 ack로 전달된다
+                    metrics.recordDuplicate();
+                    sendPendingAck(ackRequest);
+                    metrics.stopProcessing(timerSample, "duplicate", messageType);
+                    return;
+                }
+            }
 
-            messageHistoryStore.append(roomId, messageResponse);
+            // 같은 방의 메시지는 room lane에서 도착 순서대로 시각 부여, 저장 큐 적재, 브로드캐스트 예약을 한다.
+            // MongoDB 기록 대기는 lane 밖에서 해 같은 방의 메시지도 한 배치로 묶일 수 있게 한다.
+            // 선점한 메시지 키는 lane에서 저장 결과에 묶어 정리한다. 대기 시간 초과는 기록 실패가 아니므로 여기서 해제하지 않는다.
+            // 저장 큐에 오르지 못하고 실패한 경우 pending TTL이 지나면 같은 키로 다시 보낼 수 있다.
+            SendResult result = roomOrderedExecutor.call(roomId,
+                    () -> sequenceAndEnqueue(roomId, socketUser.id(), clientMessageKey, message, sender));
+            metrics.time(Stage.SAVE, () -> messagePersistencePipeline.awaitAck(result.persisted()));
+            MessageResponse messageResponse = result.response();
 
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGE, messageResponse);
+            metrics.time(Stage.HISTORY_APPEND, () -> messageHistoryWriter.append(messageResponse));
+            sendAck(ackRequest, messageResponse, false);
 
-            aiService.handleAIMentions(roomId, socketUser.id(), messageContent);
+            metrics.time(Stage.AI_DISPATCH,
+                    () -> aiService.handleAIMentions(roomId, socketUser.id(), messageContent));
 
-            sessionService.updateLastActivity(socketUser.id());
+            metrics.time(Stage.ACTIVITY_UPDATE, () -> sessionService.updateLastActivity(socketUser.id()));
 
-            recordMessageSuccess(messageType);
-            timerSample.stop(createTimer("success", messageType));
+            metrics.recordSuccess(messageType);
+            metrics.stopProcessing(timerSample, "success", messageType);
 
             log.debug("Message processed - messageId: {}, type: {}, room: {}",
-                savedMessage.getId(), savedMessage.getType(), roomId);
+                messageResponse.getId(), messageResponse.getType(), roomId);
 
         } catch (Exception e) {
-            recordError("exception");
+            metrics.recordError("exception");
             log.error("Message handling error", e);
-            client.sendEvent(ERROR, Map.of(
+            sendError(client, ackRequest, Map.of(
                 "code", "MESSAGE_ERROR",
                 "message", e.getMessage() != null ? e.getMessage() : "메시지 전송 중 오류가 발생했습니다."
             ));
-            timerSample.stop(createTimer("error", "exception"));
+            metrics.stopProcessing(timerSample, "error", "exception");
+        }
+    }
+
+    /**
+     * room lane 안에서 실행된다. 순서를 정하는 작업(시각 부여, 저장 큐 적재, 브로드캐스트 예약)만 하고 기록을 기다리지 않는다.
+     * DURABLE이면 기록이 끝난 메시지만 브로드캐스트하고, ENQUEUE면 ack와 마찬가지로 기록 전에 바로 브로드캐스트한다.
+     */
+    private SendResult sequenceAndEnqueue(String roomId, String userId, String clientMessageKey,
+                                          Message message, CachedUser sender) {
+        message.setTimestamp(LocalDateTime.now());
+        message.setId(new ObjectId().toHexString());
+        MessageResponse messageResponse = createMessageResponse(message, sender);
+
+        CompletableFuture<Message> persisted = messagePersistencePipeline.enqueue(message);
+        if (clientMessageKey != null) {
+            settleDedupClaim(roomId, userId, clientMessageKey, persisted, messageResponse);
+        }
+
+        if (messagePersistencePipeline.getAckMode() == MessagePersistencePipeline.AckMode.ENQUEUE) {
+            broadcast(roomId, messageResponse);
+        } else {
+            broadcastWhenPersisted(roomId, persisted, messageResponse);
+        }
+        return new SendResult(messageResponse, persisted);
+    }
+
+    /**
+     * 방의 직전 브로드캐스트와 이 메시지의 기록이 모두 끝나면 브로드캐스트한다.
+     * lane 안에서 호출되므로 방별 tail 갱신은 적재 순서를 따른다. 기록에 실패한 메시지는 브로드캐스트하지 않는다.
+     */
+    private void broadcastWhenPersisted(String roomId, CompletableFuture<Message> persisted, MessageResponse messageResponse) {
+        CompletableFuture<Void> previous = broadcastTails.getOrDefault(roomId, CompletableFuture.completedFuture(null));
+        CompletableFuture<Void> tail = previous
+                .thenCompose(ignored -> persisted)
+                // flush 스레드에서 소켓 전송을 하지 않도록 별도 가상 스레드에서 처리한다
+                .thenAcceptAsync(saved -> broadcast(roomId, messageResponse), task -> Thread.ofVirtual().start(task))
+                .exceptionally(e -> {
+                    log.warn("Message not broadcast - messageId: {}, room: {}", messageResponse.getId(), roomId, e);
+                    return null;
+                });
+        broadcastTails.put(roomId, tail);
+        tail.whenComplete((ignored, error) -> broadcastTails.remove(roomId, tail));
+    }
+
+    private void broadcast(String roomId, MessageResponse messageResponse) {
+        metrics.time(Stage.BROADCAST, () -> roomBroadcaster.broadcast(roomId, MESSAGE, messageResponse));
+    }
+
+    /**
+     * 저장이 끝나면 선점한 메시지 키에 응답을 기록하고, 기록에 실패하면 해제한다.
+     * 호출자의 대기 시간 초과와 무관하게 실제 기록 결과로만 정리하므로, 늦게 기록된 메시지를 재시도가 다시 보내지 않는다.
+     */
+    private void settleDedupClaim(String roomId, String userId, String clientMessageKey,
+                                  CompletableFuture<Message> persisted, MessageResponse messageResponse) {
+        // lane과 flush 스레드에서 Redis를 호출하지 않도록 별도 가상 스레드에서 처리한다
+        persisted.whenCompleteAsync((saved, error) -> {
+            if (error == null) {
+                messageDedupStore.complete(roomId, userId, clientMessageKey, messageResponse);
+            } else {
+                messageDedupStore.release(roomId, userId, clientMessageKey);
+            }
+        }, task -> Thread.ofVirtual().start(task));
+    }
+
+    /**
+     * 같은 메시지 키의 요청이 처리 중임을 알린다. 클라이언트는 잠시 후 같은 키로 다시 보낼 수 있다.
+     */
+    private void sendPendingAck(AckRequest ackRequest) {
+        if (ackRequest != null && ackRequest.isAckRequested()) {
+            ackRequest.sendAckData(Map.of(
+                    "ok", false,
+                    "code", "MESSAGE_PENDING",
+                    "duplicate", true
+            ));
+        }
+    }
+
+    /**
+     * 발신자에게 저장된 메시지 ID와 서버 시각을 ack로 전달한다.
+     */
+    private void sendAck(AckRequest ackRequest, MessageResponse response, boolean duplicate) {
+        if (ackRequest != null && ackRequest.isAckRequested()) {
+            ackRequest.sendAckData(Map.of(
+                    "ok", true,
+                    "_id", response.getId(),
+                    "timestamp", response.getTimestamp(),
+                    "duplicate", duplicate
+            ));
+        }
+    }
+
+    /**
+     * 기존 ERROR 이벤트를 유지하면서, ack를 요청한 클라이언트에는 같은 내용을 ack로도 전달한다.
+     */
+    private void sendError(SocketIOClient client, AckRequest ackRequest, Map<String, ?> error) {
+        client.sendEvent(ERROR, error);
+        if (ackRequest != null && ackRequest.isAckRequested()) {
+            Map<String, Object> payload = new HashMap<>(error);
+            payload.put("ok", false);
+            ackRequest.sendAckData(payload);
         }
     }
 
@@ -204,7 +326,6 @@ public class ChatMessageHandler {
         message.setType(MessageType.file);
         message.setFileId(fileId);
         message.setContent(messageContent.getTrimmedContent());
-        message.setTimestamp(LocalDateTime.now());
         message.setMentions(messageContent.aiMentions());
         
         // 메타데이터는 Map<String, Object>
@@ -227,13 +348,12 @@ public class ChatMessageHandler {
         message.setSenderId(userId);
         message.setContent(messageContent.getTrimmedContent());
         message.setType(MessageType.text);
-        message.setTimestamp(LocalDateTime.now());
         message.setMentions(messageContent.aiMentions());
 
         return message;
     }
 
-    private MessageResponse createMessageResponse(Message message, User sender) {
+    private MessageResponse createMessageResponse(Message message, CachedUser sender) {
         var messageResponse = new MessageResponse();
         messageResponse.setId(message.getId());
         messageResponse.setRoomId(message.getRoomId());
@@ -241,7 +361,7 @@ public class ChatMessageHandler {
         messageResponse.setType(message.getType());
         messageResponse.setTimestamp(message.toTimestampMillis());
         messageResponse.setReactions(message.getReactions() != null ? message.getReactions() : Collections.emptyMap());
-        messageResponse.setSender(UserResponse.from(sender));
+        messageResponse.setSender(sender.toUserResponse());
         messageResponse.setMetadata(message.getMetadata());
 
         if (message.getFileId() != null) {
@@ -252,29 +372,6 @@ public class ChatMessageHandler {
         return messageResponse;
     }
 
-    // Metrics helper methods
-    private Timer createTimer(String status, String messageType) {
-        return Timer.builder("socketio.messages.processing.time")
-                .description("Socket.IO message processing time")
-                .tag("status", status)
-                .tag("message_type", messageType)
-                .register(meterRegistry);
-    }
-
-    private void recordMessageSuccess(String messageType) {
-        Counter.builder("socketio.messages.total")
-                .description("Total Socket.IO messages processed")
-                .tag("status", "success")
-                .tag("message_type", messageType)
-                .register(meterRegistry)
-                .increment();
-    }
-
-    private void recordError(String errorType) {
-        Counter.builder("socketio.messages.errors")
-                .description("Socket.IO message processing errors")
-                .tag("error_type", errorType)
-                .register(meterRegistry)
-                .increment();
+    private record SendResult(MessageResponse response, CompletableFuture<Message> persisted) {
     }
 }
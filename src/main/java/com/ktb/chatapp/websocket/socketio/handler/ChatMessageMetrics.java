@@ -0,0 +1,156 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 메시지 전송 파이프라인 메트릭
+ * 메시지마다 Meter를 builder로 조회하지 않도록 핸들을 미리 등록해 두고,
+ * 단계별 소요 시간을 SLO 버킷 히스토그램으로 기록해 p99 변화의 원인 단계를 추적한다.
+ */
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatMessageMetrics {
+
+    /**
+     * handleChatMessage 처리 단계
+     */
+    public enum Stage {
+        SESSION_VALIDATION("session_validation"),
+        USER_LOOKUP("user_lookup"),
+        ROOM_LOOKUP("room_lookup"),
+        BANNED_WORD("banned_word"),
+        DEDUP("dedup"),
+        SAVE("save"),
+        HISTORY_APPEND("history_append"),
+        BROADCAST("broadcast"),
+        AI_DISPATCH("ai_dispatch"),
+        ACTIVITY_UPDATE("activity_update");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Duration[] SLO_BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5),
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(2)
+    };
+
+    private static final List<String> ERROR_TYPES = List.of(
+            "null_data", "session_null", "session_expired",
+            "user_not_found", "room_access_denied", "banned_word", "exception");
+    private static final List<String> MESSAGE_TYPES = List.of("text", "file");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> successCounters = new ConcurrentHashMap<>();
+    private final Counter duplicateCounter;
+    private final Timer deliveryTimer;
+
+    public ChatMessageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("socketio.messages.stage.time")
+                    .description("Socket.IO chat message processing time per stage")
+                    .tag("stage", stage.tag)
+                    .serviceLevelObjectives(SLO_BUCKETS)
+                    .register(meterRegistry));
+        }
+        this.duplicateCounter = Counter.builder("socketio.messages.duplicates")
+                .description("Retried messages answered from the dedup index")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("socketio.messages.delivery.latency")
+                .description("Time from server persist until a receiver acknowledges delivery")
+                .serviceLevelObjectives(SLO_BUCKETS)
+                .register(meterRegistry);
+
+        ERROR_TYPES.forEach(this::errorCounter);
+        ERROR_TYPES.forEach(errorType -> processingTimer("error", errorType));
+        MESSAGE_TYPES.forEach(messageType -> {
+            successCounter(messageType);
+            processingTimer("success", messageType);
+            processingTimer("ignored", messageType);
+            processingTimer("duplicate", messageType);
+        });
+    }
+
+    public Timer.Sample startProcessing() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopProcessing(Timer.Sample sample, String status, String messageType) {
+        sample.stop(processingTimer(status, messageType));
+    }
+
+    public <T> T time(Stage stage, Supplier<T> body) {
+        return stageTimers.get(stage).record(body);
+    }
+
+    public void time(Stage stage, Runnable body) {
+        stageTimers.get(stage).record(body);
+    }
+
+    public void recordSuccess(String messageType) {
+        successCounter(messageType).increment();
+    }
+
+    public void recordError(String errorType) {
+        errorCounter(errorType).increment();
+    }
+
+    public void recordDuplicate() {
+        duplicateCounter.increment();
+    }
+
+    /**
+     * 전송(서버 저장 시각)부터 수신 클라이언트 확인까지의 지연을 기록한다.
+     * 방 ID는 클라이언트가 보낸 값이라 태그로 쓰지 않는다.
+     */
+    public void recordDelivery(Duration latency) {
+        deliveryTimer.record(latency);
+    }
+
+    private Timer processingTimer(String status, String messageType) {
+        return processingTimers.computeIfAbsent(status + ":" + messageType,
+                key -> Timer.builder("socketio.messages.processing.time")
+                        .description("Socket.IO message processing time")
+                        .tag("status", status)
+                        .tag("message_type", messageType)
+                        .serviceLevelObjectives(SLO_BUCKETS)
+                        .register(meterRegistry));
+    }
+
+    private Counter successCounter(String messageType) {
+        return successCounters.computeIfAbsent(messageType,
+                key -> Counter.builder("socketio.messages.total")
+                        .description("Total Socket.IO messages processed")
+                        .tag("status", "success")
+                        .tag("message_type", messageType)
+                        .register(meterRegistry));
+    }
+
+    private Counter errorCounter(String errorType) {
+        return errorCounters.computeIfAbsent(errorType,
+                key -> Counter.builder("socketio.messages.errors")
+                        .description("Socket.IO message processing errors")
+                        .tag("error_type", errorType)
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,52 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.dto.MessageDeliveredRequest;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
+
+/**
+ * 메시지 수신 확인 처리 핸들러
+ * 수신 클라이언트가 보낸 messageDelivered로 전송→수신 지연을 히스토그램에 기록한다.
+ * 지연은 MessageResponse.timestamp(서버 저장 시각) 기준이므로 클라이언트 시계와 무관하다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MessageDeliveryHandler {
+
+    private static final Duration MAX_PLAUSIBLE_LATENCY = Duration.ofMinutes(5);
+
+    private final ChatMessageMetrics metrics;
+
+    @Value("${chatapp.socketio.delivery-latency.enabled:true}")
+    private boolean enabled;
+
+    @OnEvent(MESSAGE_DELIVERED)
+    public void handleMessageDelivered(SocketIOClient client, MessageDeliveredRequest data) {
+        if (!enabled || data == null || data.getTimestamp() <= 0) {
+            return;
+        }
+        SocketUser user = client.get("user");
+        if (user == null) {
+            return;
+        }
+
+        long latencyMillis = System.currentTimeMillis() - data.getTimestamp();
+        if (latencyMillis < 0 || latencyMillis > MAX_PLAUSIBLE_LATENCY.toMillis()) {
+            // 오래된 메시지 재수신이나 노드 간 시계 오차는 지연 분포를 왜곡하므로 제외
+            log.debug("Delivery ack ignored - messageId: {}, latencyMs: {}", data.getMessageId(), latencyMillis);
+            return;
+        }
+        metrics.recordDelivery(Duration.ofMillis(latencyMillis));
+    }
+}
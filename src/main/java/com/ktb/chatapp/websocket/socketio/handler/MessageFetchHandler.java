@@ -2,10 +2,11 @@ package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.FetchMessagesRequest;
 import com.ktb.chatapp.dto.FetchMessagesResponse;
-import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.repository.RoomRepository;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.NearCache;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -25,10 +26,11 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class MessageFetchHandler {
 
-    private final RoomRepository roomRepository;
+    private final NearCache nearCache;
     private final MessageLoader messageLoader;
 
     @OnEvent(FETCH_PREVIOUS_MESSAGES)
+    @RateLimit(maxRequests = 120, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
     public void handleFetchMessages(SocketIOClient client, FetchMessagesRequest data) {
         String userId = getUserId(client);
         String queueKey = data.roomId() + ":" + userId;
@@ -42,8 +44,8 @@ public class MessageFetchHandler {
         
         try {
             // 권한 체크
-            Room room = roomRepository.findById(data.roomId()).orElse(null);
-            if (room == null || !room.getParticipantIds().contains(userId)) {
+            CachedRoom room = nearCache.findRoom(data.roomId()).orElse(null);
+            if (room == null || !room.hasParticipant(userId)) {
                 client.sendEvent(ERROR, Map.of(
                         "code", "LOAD_ERROR",
                         "message", "채팅방 접근 권한이 없습니다."
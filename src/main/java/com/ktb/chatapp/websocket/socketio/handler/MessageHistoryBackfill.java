@@ -0,0 +1,137 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.HistoryPage;
+import com.ktb.chatapp.service.MessageHistoryStore;
+import com.ktb.chatapp.service.RecentMessageCache;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 방 이력 read-through 채우기
+ * 이력이 비어 있거나 seed 마커가 없는 방(Redis flush, 오래된 방 등)은 최초 로드 시
+ * MongoDB에서 최근 window 건을 한 번 읽어 {@link MessageHistoryStore#seed}로 채운다.
+ * 같은 노드에서 동시에 들어온 요청은 하나만 MongoDB를 읽고 나머지는 기존 DB 경로를 탄다.
+ * 저장 형태와 대상은 실시간 append({@link com.ktb.chatapp.service.MessageHistoryWriter})와 같게 맞춘다.
+ * 사용자/AI/시스템 메시지를 모두 담고, 발신자는 NearCache 기준이며 presigned URL은 넣지 않는다.
+ * 메시지가 없는 방도 빈 {@code full} 마커를 남겨 다음 조회부터는 MongoDB를 읽지 않는다.
+ * 채운 뒤에는 이전 이력 기준으로 남아 있을 수 있는 모든 노드의 L1을 내린다.
+ */
+@Slf4j
+@Component
+public class MessageHistoryBackfill {
+
+    private final MessageRepository messageRepository;
+    private final MessageResponseMapper messageResponseMapper;
+    private final MessageHistoryStore messageHistoryStore;
+    private final RecentMessageCache recentMessageCache;
+    private final NearCache nearCache;
+    private final int window;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Counter seeded;
+    private final Counter skipped;
+    private final Counter failed;
+
+    public MessageHistoryBackfill(
+            MessageRepository messageRepository,
+            MessageResponseMapper messageResponseMapper,
+            MessageHistoryStore messageHistoryStore,
+            RecentMessageCache recentMessageCache,
+            NearCache nearCache,
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.history.backfill.window:200}") int window) {
+        this.messageRepository = messageRepository;
+        this.messageResponseMapper = messageResponseMapper;
+        this.messageHistoryStore = messageHistoryStore;
+        this.recentMessageCache = recentMessageCache;
+        this.nearCache = nearCache;
+        this.window = window;
+
+        this.seeded = counter(meterRegistry, "seeded");
+        this.skipped = counter(meterRegistry, "skipped");
+        this.failed = counter(meterRegistry, "failed");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("history.backfill")
+                .description("Room history backfills from MongoDB into Redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * seeded 마커가 없는 방의 이력을 MongoDB로 채운다.
+     *
+     * @param cached Redis에서 읽은 페이지
+     * @return 이번 호출로 이력을 채웠으면 true (호출자는 Redis를 다시 읽는다)
+     */
+    public boolean backfillIfNeeded(String roomId, HistoryPage cached) {
+        if (window <= 0) {
+            return false;
+        }
+        // 마커가 있으면 이미 채워진 이력이다 (빈 방은 full 마커만 있다)
+        if (cached.seeded()) {
+            return false;
+        }
+        if (!inFlight.add(roomId)) {
+            skipped.increment();
+            return false;
+        }
+        try {
+            List<MessageResponse> latest = loadLatest(roomId);
+            // window보다 적게 읽혔으면 방의 첫 메시지까지 모두 담은 것이다
+            if (!messageHistoryStore.seed(roomId, latest, latest.size() < window)) {
+                skipped.increment();
+                return false;
+            }
+            recentMessageCache.invalidate(roomId);
+            seeded.increment();
+            log.debug("Room history backfilled from DB - roomId: {}, count: {}", roomId, latest.size());
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to backfill room history - roomId: {}", roomId, e);
+            return false;
+        } finally {
+            inFlight.remove(roomId);
+        }
+    }
+
+    private List<MessageResponse> loadLatest(String roomId) {
+        List<Message> newestFirst = messageRepository.findLatestBefore(
+                roomId, LocalDateTime.now(), PageRequest.of(0, window));
+
+        Set<String> senderIds = newestFirst.stream()
+                .map(Message::getSenderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, CachedUser> senders = nearCache.findUsers(senderIds);
+
+        return newestFirst.reversed().stream()
+                .map(message -> {
+                    MessageResponse response = messageResponseMapper.mapToMessageResponse(message, null, null);
+                    CachedUser sender = message.getSenderId() != null ? senders.get(message.getSenderId()) : null;
+                    if (sender != null) {
+                        response.setSender(sender.toUserResponse());
+                    }
+                    return response;
+                })
+                .toList();
+    }
+}
@@ -7,22 +7,25 @@ import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.HistoryPage;
 import com.ktb.chatapp.service.MessageHistoryStore;
 import com.ktb.chatapp.service.MessageReadStatusService;
+import com.ktb.chatapp.service.RecentMessageCache;
 import com.ktb.chatapp.util.image.ImageUtils;
 import jakarta.annotation.Nullable;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import static java.util.Collections.emptyList;
@@ -40,25 +43,26 @@ public class MessageLoader {
     private final MessageResponseMapper messageResponseMapper;
     private final MessageReadStatusService messageReadStatusService;
     private final MessageHistoryStore messageHistoryStore;
+    private final MessageHistoryBackfill messageHistoryBackfill;
+    private final RecentMessageCache recentMessageCache;
     private final ImageUtils imageUtils;
 
     public FetchMessagesResponse loadMessages(FetchMessagesRequest data, String userId) {
         String roomId = data.roomId();
         int limit = Math.min(data.limit(BATCH_SIZE), MAX_LIMIT);
         LocalDateTime before = data.before(LocalDateTime.now());
+        // 최초 로드는 커서 없이 가장 최근 메시지부터 읽는다
+        long beforeMillis = data.before() != null && data.before() > 0 ? data.before() : Long.MAX_VALUE;
 
         try {
-            FetchMessagesResponse fromRedis = loadFromRedis(roomId, before, limit, userId);
-            if (fromRedis != null) {
-                log.debug("Messages loaded from Redis store - roomId: {}, before: {}, limit: {}, count: {}, hasMore: {}",
-                        roomId, before, limit, fromRedis.getMessages().size(), fromRedis.isHasMore());
-                return fromRedis;
+            FetchMessagesResponse response = loadFromCache(roomId, beforeMillis, limit);
+            if (response == null) {
+                response = loadFromStores(roomId, beforeMillis, before, limit);
             }
 
-            FetchMessagesResponse fromDb = loadFromDb(roomId, before, limit, userId);
-            log.debug("Messages loaded from DB - roomId: {}, before: {}, limit: {}, count: {}, hasMore: {}",
-                    roomId, before, limit, fromDb.getMessages().size(), fromDb.isHasMore());
-            return fromDb;
+            var messageIds = response.getMessages().stream().map(MessageResponse::getId).toList();
+            messageReadStatusService.updateReadStatus(messageIds, userId);
+            return response;
         } catch (Exception e) {
             log.error("Error loading messages for room {}", roomId, e);
             return FetchMessagesResponse.builder()
@@ -68,65 +72,99 @@ public class MessageLoader {
         }
     }
 
+    /**
+     * 노드 로컬 캐시에서 limit + 1건을 채울 수 있으면 바로 응답한다.
+     * 한 건을 더 읽으므로 hasMore가 정확하다.
+     */
     @Nullable
-    private FetchMessagesResponse loadFromRedis(
-            String roomId,
-            LocalDateTime before,
-            int limit,
-            String userId
-    ) {
-        int fetchSize = limit * 2;
-
-        List<MessageResponse> historyTail = messageHistoryStore.getLast(roomId, fetchSize);
-        if (historyTail.isEmpty()) {
+    private FetchMessagesResponse loadFromCache(String roomId, long beforeMillis, int limit) {
+        Optional<List<MessageResponse>> page = recentMessageCache.getBefore(roomId, beforeMillis, limit + 1);
+        if (page.isEmpty()) {
             return null;
         }
 
-        long beforeMillis = before.toInstant(ZoneOffset.UTC).toEpochMilli();
+        List<MessageResponse> messages = page.get().subList(1, page.get().size());
+        log.debug("Messages loaded from local cache - roomId: {}, before: {}, limit: {}, count: {}",
+                roomId, beforeMillis, limit, messages.size());
+        return FetchMessagesResponse.builder()
+                .messages(messages)
+                .hasMore(true)
+                .build();
+    }
+
+    /**
+     * Redis 이력에서 읽을 수 있는 만큼 읽고, 모자란 오래된 쪽만 MongoDB에서 이어 읽는다.
+     * 각 저장소에서 필요한 건수보다 한 건을 더 읽어 hasMore를 정확히 계산하므로
+     * 클라이언트는 스크롤 한 번에 요청 한 번만 보낸다.
+     * seeded 마커가 없는 이력은 모든 메시지를 담고 있다는 보장이 없으므로 채우기를 시도하고,
+     * 그래도 채워지지 않았으면 페이지 전체를 MongoDB에서 읽는다.
+     */
+    private FetchMessagesResponse loadFromStores(String roomId, long beforeMillis, LocalDateTime before, int limit) {
+        HistoryPage cached = readHistory(roomId, beforeMillis, limit + 1);
+        if (!cached.seeded() && messageHistoryBackfill.backfillIfNeeded(roomId, cached)) {
+            cached = readHistory(roomId, beforeMillis, limit + 1);
+        }
 
-        List<MessageResponse> filtered = historyTail.stream()
-                .filter(m -> m.getTimestamp() < beforeMillis)
-                .sorted((a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()))
-                .toList();
+        List<MessageResponse> fromRedis = cached.seeded() ? cached.messages() : List.of();
+        recentMessageCache.seed(roomId, beforeMillis, fromRedis, cached.version());
 
-        if (filtered.isEmpty()) {
-            return null;
+        if (fromRedis.size() > limit) {
+            return page(roomId, beforeMillis, fromRedis.subList(1, fromRedis.size()), List.of(), true);
+        }
+        if (cached.complete()) {
+            return page(roomId, beforeMillis, fromRedis, List.of(), false);
         }
 
-        int total = filtered.size();
-        int fromIndex = Math.max(total - limit, 0);
-        List<MessageResponse> page = filtered.subList(fromIndex, total);
+        int missing = limit - fromRedis.size();
+        List<Message> older = fromRedis.isEmpty()
+                ? messageRepository.findLatestBefore(roomId, before, PageRequest.of(0, missing + 1))
+                : findOlderThan(roomId, fromRedis.getFirst(), missing + 1);
+        boolean hasMore = older.size() > missing;
+        List<MessageResponse> fromDb = toResponses(older.subList(0, Math.min(missing, older.size())).reversed());
+        return page(roomId, beforeMillis, fromRedis, fromDb, hasMore);
+    }
 
-        var messageIds = page.stream().map(MessageResponse::getId).toList();
-        messageReadStatusService.updateReadStatus(messageIds, userId);
+    private HistoryPage readHistory(String roomId, long beforeMillis, int limit) {
+        return beforeMillis == Long.MAX_VALUE
+                ? messageHistoryStore.getLast(roomId, limit)
+                : messageHistoryStore.getBefore(roomId, beforeMillis, limit);
+    }
 
-        boolean hasMore = true;
+    /**
+     * Redis에 있는 가장 오래된 메시지의 (timestamp, id) 바로 이전부터 최신순으로 읽는다.
+     */
+    private List<Message> findOlderThan(String roomId, MessageResponse oldest, int count) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(oldest.getTimestamp()), ZoneId.systemDefault());
+        if (!ObjectId.isValid(oldest.getId())) {
+            return messageRepository.findLatestBefore(roomId, timestamp, PageRequest.of(0, count));
+        }
+        return messageRepository.findLatestBeforeKey(
+                roomId, timestamp, new ObjectId(oldest.getId()), PageRequest.of(0, count));
+    }
 
+    private FetchMessagesResponse page(
+            String roomId,
+            long beforeMillis,
+            List<MessageResponse> fromRedis,
+            List<MessageResponse> fromDb,
+            boolean hasMore
+    ) {
+        List<MessageResponse> messages = fromDb.isEmpty() ? fromRedis : new ArrayList<>(fromDb.size() + fromRedis.size());
+        if (!fromDb.isEmpty()) {
+            messages.addAll(fromDb);
+            messages.addAll(fromRedis);
+        }
+        log.debug("Messages loaded - roomId: {}, before: {}, redis: {}, db: {}, hasMore: {}",
+                roomId, beforeMillis, fromRedis.size(), fromDb.size(), hasMore);
         return FetchMessagesResponse.builder()
-                .messages(page)
+                .messages(messages)
                 .hasMore(hasMore)
                 .build();
     }
 
-    private FetchMessagesResponse loadFromDb(
-            String roomId,
-            LocalDateTime before,
-            int limit,
-            String userId
-    ) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by("timestamp").descending());
-
-        Page<Message> messagePage = messageRepository
-                .findByRoomIdAndIsDeletedAndTimestampBefore(roomId, false, before, pageable);
-
-        List<Message> messages = messagePage.getContent();
-
-        List<Message> sortedMessages = messages.reversed();
-
-        var messageIds = sortedMessages.stream().map(Message::getId).toList();
-        messageReadStatusService.updateReadStatus(messageIds, userId);
-
-        List<MessageResponse> messageResponses = sortedMessages.stream()
+    private List<MessageResponse> toResponses(List<Message> messages) {
+        return messages.stream()
                 .map(message -> {
                     var user = findUserById(message.getSenderId());
                     String presignedProfileUrl="";
@@ -136,13 +174,6 @@ public class MessageLoader {
                     return messageResponseMapper.mapToMessageResponse(message, user, presignedProfileUrl);
                 })
                 .collect(Collectors.toList());
-
-        boolean hasMore = messagePage.hasNext();
-
-        return FetchMessagesResponse.builder()
-                .messages(messageResponses)
-                .hasMore(hasMore)
-                .build();
     }
 
     /**
@@ -3,15 +3,27 @@ package com.ktb.chatapp.websocket.socketio.handler;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.MessageReactionRequest;
 import com.ktb.chatapp.dto.MessageReactionResponse;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.HistoryPatch;
+import com.ktb.chatapp.service.MessageHistoryPatcher;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.dispatch.RoomOrderedExecutor;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
@@ -28,8 +40,12 @@ public class MessageReactionHandler {
     
     private final SocketIOServer socketIOServer;
     private final MessageRepository messageRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RoomOrderedExecutor roomOrderedExecutor;
+    private final MessageHistoryPatcher messageHistoryPatcher;
     
     @OnEvent(MESSAGE_REACTION)
+    @RateLimit(maxRequests = 300, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
     public void handleMessageReaction(SocketIOClient client, MessageReactionRequest data) {
         try {
             String userId = getUserId(client);
@@ -38,33 +54,42 @@ public class MessageReactionHandler {
                 return;
             }
 
-            Message message = messageRepository.findById(data.getMessageId()).orElse(null);
-            if (message == null) {
-                client.sendEvent(ERROR, Map.of("message", "메시지를 찾을 수 없습니다."));
+            if (!"add".equals(data.getType()) && !"remove".equals(data.getType())) {
+                client.sendEvent(ERROR, Map.of("message", "지원하지 않는 리액션 타입입니다."));
+                return;
+            }
+
+            if (!isValidReactionKey(data.getReaction())) {
+                client.sendEvent(ERROR, Map.of("message", "지원하지 않는 리액션입니다."));
                 return;
             }
 
-            switch (data.getType()) {
-                case "add" -> message.addReaction(data.getReaction(), userId);
-                case "remove" -> message.removeReaction(data.getReaction(), userId);
-                case null, default -> {
-                    client.sendEvent(ERROR, Map.of("message", "지원하지 않는 리액션 타입입니다."));
-                    return;
-                }
+            String roomId = messageRepository.findById(data.getMessageId())
+                    .map(Message::getRoomId).orElse(null);
+            if (roomId == null) {
+                client.sendEvent(ERROR, Map.of("message", "메시지를 찾을 수 없습니다."));
+                return;
             }
 
-            log.debug("Message reaction processed - type: {}, reaction: {}, messageId: {}, userId: {}",
-                data.getType(), data.getReaction(), message.getId(), userId);
+            // 갱신은 $addToSet/$pull로 원자적으로 한다. room lane은 캐시 갱신과 브로드캐스트 순서만 맞춘다
+            roomOrderedExecutor.run(roomId, () -> {
+                Map<String, Set<String>> reactions = updateReaction(
+                    data.getMessageId(), data.getReaction(), userId, "add".equals(data.getType()));
 
-            messageRepository.save(message);
+                log.debug("Message reaction processed - type: {}, reaction: {}, messageId: {}, userId: {}",
+                    data.getType(), data.getReaction(), data.getMessageId(), userId);
 
-            MessageReactionResponse response = new MessageReactionResponse(
-                message.getId(),
-                message.getReactions()
-            );
+                messageHistoryPatcher.apply(roomId,
+                    List.of(HistoryPatch.reactions(data.getMessageId(), reactions)));
 
-            socketIOServer.getRoomOperations(message.getRoomId())
-                .sendEvent(MESSAGE_REACTION_UPDATE, response);
+                MessageReactionResponse response = new MessageReactionResponse(
+                    data.getMessageId(),
+                    reactions
+                );
+
+                socketIOServer.getRoomOperations(roomId)
+                    .sendEvent(MESSAGE_REACTION_UPDATE, response);
+            });
 
         } catch (Exception e) {
             log.error("Error handling messageReaction", e);
@@ -74,6 +99,43 @@ public class MessageReactionHandler {
         }
     }
     
+    /**
+     * 리액션을 원자적으로 추가/제거하고 갱신 후 전체 리액션을 반환한다.
+     * 제거로 빈 목록이 된 리액션은 필드에서 지운다.
+     */
+    private Map<String, Set<String>> updateReaction(String messageId, String reaction, String userId, boolean add) {
+        String field = "reactions." + reaction;
+        Query query = Query.query(Criteria.where("_id").is(messageId));
+        query.fields().include("reactions");
+        Update update = add ? new Update().addToSet(field, userId) : new Update().pull(field, userId);
+
+        Message updated = mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), Message.class);
+        if (updated == null) {
+            throw new IllegalStateException("메시지를 찾을 수 없습니다.");
+        }
+
+        Map<String, Set<String>> reactions = updated.getReactions() != null
+            ? new HashMap<>(updated.getReactions()) : new HashMap<>();
+        Set<String> users = reactions.get(reaction);
+        if (users != null && users.isEmpty()) {
+            reactions.remove(reaction);
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(messageId).and(field).size(0)),
+                new Update().unset(field),
+                Message.class);
+        }
+        return reactions;
+    }
+
+    /**
+     * 리액션은 문서 필드명으로 쓰이므로 경로 구분자나 연산자로 해석될 수 있는 값은 받지 않는다.
+     */
+    private boolean isValidReactionKey(String reaction) {
+        return reaction != null && !reaction.isBlank() && reaction.length() <= 64
+            && !reaction.contains(".") && !reaction.startsWith("$");
+    }
+
     private String getUserId(SocketIOClient client) {
         var user = (SocketUser) client.get("user");
         return user.id();
@@ -3,16 +3,17 @@ package com.ktb.chatapp.websocket.socketio.handler;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.MarkAsReadRequest;
 import com.ktb.chatapp.dto.MessagesReadResponse;
 import com.ktb.chatapp.model.Message;
-import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.MessageRepository;
-import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.service.MessageReadStatusService;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
+import com.ktb.chatapp.websocket.socketio.dispatch.RoomOrderedExecutor;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,10 +35,11 @@ public class MessageReadHandler {
     private final SocketIOServer socketIOServer;
     private final MessageReadStatusService messageReadStatusService;
     private final MessageRepository messageRepository;
-    private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final NearCache nearCache;
+    private final RoomOrderedExecutor roomOrderedExecutor;
     
     @OnEvent(MARK_MESSAGES_AS_READ)
+    @RateLimit(maxRequests = 600, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
     public void handleMarkAsRead(SocketIOClient client, MarkAsReadRequest data) {
         try {
             String userId = getUserId(client);
@@ -58,25 +60,27 @@ public class MessageReadHandler {
                 return;
             }
 
-            User user = userRepository.findById(userId).orElse(null);
+            CachedUser user = nearCache.findUser(userId).orElse(null);
             if (user == null) {
                 client.sendEvent(ERROR, Map.of("message", "User not found"));
                 return;
             }
 
-            Room room = roomRepository.findById(roomId).orElse(null);
-            if (room == null || !room.getParticipantIds().contains(userId)) {
+            CachedRoom room = nearCache.findRoom(roomId).orElse(null);
+            if (room == null || !room.hasParticipant(userId)) {
                 client.sendEvent(ERROR, Map.of("message", "Room access denied"));
                 return;
             }
             
-            messageReadStatusService.updateReadStatus(data.getMessageIds(), userId);
+            roomOrderedExecutor.run(roomId, () -> {
+                messageReadStatusService.updateReadStatus(data.getMessageIds(), userId);
 
-            MessagesReadResponse response = new MessagesReadResponse(userId, data.getMessageIds());
+                MessagesReadResponse response = new MessagesReadResponse(userId, data.getMessageIds());
 
-            // Broadcast to room
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGES_READ, response);
+                // Broadcast to room
+                socketIOServer.getRoomOperations(roomId)
+                        .sendEvent(MESSAGES_READ, response);
+            });
 
         } catch (Exception e) {
             log.error("Error handling markMessagesAsRead", e);
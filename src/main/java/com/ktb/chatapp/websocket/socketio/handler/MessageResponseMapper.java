@@ -36,6 +36,7 @@ public class MessageResponseMapper {
                 .id(message.getId())
                 .content(message.getContent())
                 .type(message.getType())
+                .aiType(message.getAiType())
                 .timestamp(message.toTimestampMillis())
                 .roomId(message.getRoomId())
                 .reactions(message.getReactions() != null ?
@@ -1,18 +1,22 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
+import com.ktb.chatapp.annotation.RateLimit;
 import com.ktb.chatapp.dto.FetchMessagesRequest;
 import com.ktb.chatapp.dto.FetchMessagesResponse;
 import com.ktb.chatapp.dto.JoinRoomSuccessResponse;
+import com.ktb.chatapp.dto.MessageResponse;
 import com.ktb.chatapp.dto.UserResponse;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.MessageType;
-import com.ktb.chatapp.model.Room;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.MessageHistoryWriter;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import com.ktb.chatapp.websocket.socketio.RoomBroadcaster;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.UserRooms;
 import java.time.LocalDateTime;
@@ -34,16 +38,18 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 @RequiredArgsConstructor
 public class RoomJoinHandler {
 
-    private final SocketIOServer socketIOServer;
+    private final RoomBroadcaster roomBroadcaster;
     private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final NearCache nearCache;
     private final UserRooms userRooms;
     private final MessageLoader messageLoader;
     private final MessageResponseMapper messageResponseMapper;
     private final RoomLeaveHandler roomLeaveHandler;
+    private final MessageHistoryWriter messageHistoryWriter;
     
     @OnEvent(JOIN_ROOM)
+    @RateLimit(maxRequests = 60, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
     public void handleJoinRoom(SocketIOClient client, String roomId) {
         try {
             String userId = getUserId(client);
@@ -54,12 +60,12 @@ public class RoomJoinHandler {
                 return;
             }
             
-            if (userRepository.findById(userId).isEmpty()) {
+            if (nearCache.findUser(userId).isEmpty()) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "User not found"));
                 return;
             }
             
-            if (roomRepository.findById(roomId).isEmpty()) {
+            if (nearCache.findRoom(roomId).isEmpty()) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "채팅방을 찾을 수 없습니다."));
                 return;
             }
@@ -74,6 +80,7 @@ public class RoomJoinHandler {
 
             // MongoDB의 $addToSet 연산자를 사용한 원자적 업데이트
             roomRepository.addParticipant(roomId, userId);
+            nearCache.evictRoom(roomId);
 
             // Join socket room and add to user's room set
             client.joinRoom(roomId);
@@ -92,25 +99,27 @@ public class RoomJoinHandler {
                 .build();
 
             joinMessage = messageRepository.save(joinMessage);
+            MessageResponse joinResponse = messageResponseMapper.mapToMessageResponse(joinMessage, null, null);
+            messageHistoryWriter.append(joinResponse);
 
             // 초기 메시지 로드
             FetchMessagesRequest req = new FetchMessagesRequest(roomId, 30, null);
             FetchMessagesResponse messageLoadResult = messageLoader.loadMessages(req, userId);
 
             // 업데이트된 room 다시 조회하여 최신 participantIds 가져오기
-            Optional<Room> roomOpt = roomRepository.findById(roomId);
+            Optional<CachedRoom> roomOpt = nearCache.findRoom(roomId);
             if (roomOpt.isEmpty()) {
                 client.sendEvent(JOIN_ROOM_ERROR, Map.of("message", "채팅방을 찾을 수 없습니다."));
                 return;
             }
 
             // 참가자 정보 조회
-            List<UserResponse> participants = roomOpt.get().getParticipantIds()
-                    .stream()
-                    .map(userRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .map(UserResponse::from)
+            Set<String> participantIds = roomOpt.get().participantIds();
+            Map<String, CachedUser> users = nearCache.findUsers(participantIds);
+            List<UserResponse> participants = participantIds.stream()
+                    .map(users::get)
+                    .filter(Objects::nonNull)
+                    .map(CachedUser::toUserResponse)
                     .toList();
             
             JoinRoomSuccessResponse response = JoinRoomSuccessResponse.builder()
@@ -124,12 +133,10 @@ public class RoomJoinHandler {
             client.sendEvent(JOIN_ROOM_SUCCESS, response);
 
             // 입장 메시지 브로드캐스트
-            socketIOServer.getRoomOperations(roomId)
-                .sendEvent(MESSAGE, messageResponseMapper.mapToMessageResponse(joinMessage, null, null));
+            roomBroadcaster.broadcast(roomId, MESSAGE, joinResponse);
 
             // 참가자 목록 업데이트 브로드캐스트
-            socketIOServer.getRoomOperations(roomId)
-                .sendEvent(PARTICIPANTS_UPDATE, participants);
+            roomBroadcaster.broadcast(roomId, PARTICIPANTS_UPDATE, participants);
 
             log.info("User {} joined room {} successfully. Message count: {}, hasMore: {}",
                 userName, roomId, messageLoadResult.getMessages().size(), messageLoadResult.isHasMore());
@@ -4,21 +4,24 @@ import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.annotation.OnEvent;
 import com.ktb.chatapp.dto.MessageResponse;
-import com.ktb.chatapp.dto.UserResponse;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.MessageType;
-import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.MessageHistoryWriter;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import com.ktb.chatapp.websocket.socketio.RoomBroadcaster;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.UserRooms;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -37,11 +40,13 @@ import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.*;
 public class RoomLeaveHandler {
 
     private final SocketIOServer socketIOServer;
+    private final RoomBroadcaster roomBroadcaster;
     private final MessageRepository messageRepository;
     private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final NearCache nearCache;
     private final UserRooms userRooms;
     private final MessageResponseMapper messageResponseMapper;
+    private final MessageHistoryWriter messageHistoryWriter;
     
     @OnEvent(LEAVE_ROOM)
     public void handleLeaveRoom(SocketIOClient client, String roomId) {
@@ -59,8 +64,8 @@ public class RoomLeaveHandler {
                 return;
             }
 
-            User user = userRepository.findById(userId).orElse(null);
-            Room room = roomRepository.findById(roomId).orElse(null);
+            CachedUser user = nearCache.findUser(userId).orElse(null);
+            CachedRoom room = nearCache.findRoom(roomId).orElse(null);
             
             if (user == null || room == null) {
                 log.warn("Room {} not found or user {} has no access", roomId, userId);
@@ -68,11 +73,12 @@ public class RoomLeaveHandler {
             }
             
             roomRepository.removeParticipant(roomId, userId);
+            nearCache.evictRoom(roomId);
             
             client.leaveRoom(roomId);
             userRooms.remove(userId, roomId);
             
-            log.info("User {} left room {}", userName, room.getName());
+            log.info("User {} left room {}", userName, roomId);
             
             log.debug("Leave room cleanup - roomId: {}, userId: {}", roomId, userId);
             
@@ -105,9 +111,9 @@ public class RoomLeaveHandler {
 
             Message savedMessage = messageRepository.save(systemMessage);
             MessageResponse response = messageResponseMapper.mapToMessageResponse(savedMessage, null, null);
+            messageHistoryWriter.append(response);
 
-            socketIOServer.getRoomOperations(roomId)
-                    .sendEvent(MESSAGE, response);
+            roomBroadcaster.broadcast(roomId, MESSAGE, response);
 
         } catch (Exception e) {
             log.error("Error sending system message", e);
@@ -115,26 +121,24 @@ public class RoomLeaveHandler {
     }
     
     private void broadcastParticipantList(String roomId) {
-        Optional<Room> roomOpt = roomRepository.findById(roomId);
+        Optional<CachedRoom> roomOpt = nearCache.findRoom(roomId);
         if (roomOpt.isEmpty()) {
             return;
         }
         
-        var participantList = roomOpt.get()
-                .getParticipantIds()
-                .stream()
-                .map(userRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(UserResponse::from)
+        Set<String> participantIds = roomOpt.get().participantIds();
+        Map<String, CachedUser> users = nearCache.findUsers(participantIds);
+        var participantList = participantIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(CachedUser::toUserResponse)
                 .toList();
         
         if (participantList.isEmpty()) {
             return;
         }
         
-        socketIOServer.getRoomOperations(roomId)
-                .sendEvent(PARTICIPANTS_UPDATE, participantList);
+        roomBroadcaster.broadcast(roomId, PARTICIPANTS_UPDATE, participantList);
     }
 
     private SocketUser getUserDto(SocketIOClient client) {
@@ -0,0 +1,23 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.SocketIOChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+
+/**
+ * 인코더 앞단(tail 쪽)에 SlowConsumerHandler를 끼워 넣는 파이프라인 초기화기
+ * 모든 송신 패킷은 ClientHead 큐에서 인코더로 넘어가기 전에 이 핸들러를 거친다.
+ */
+public class SlowConsumerChannelInitializer extends SocketIOChannelInitializer {
+
+    private final SlowConsumerHandler slowConsumerHandler;
+
+    public SlowConsumerChannelInitializer(SlowConsumerHandler slowConsumerHandler) {
+        this.slowConsumerHandler = slowConsumerHandler;
+    }
+
+    @Override
+    protected void addSocketioHandlers(ChannelPipeline pipeline) {
+        super.addSocketioHandlers(pipeline);
+        pipeline.addAfter(SOCKETIO_ENCODER, SlowConsumerHandler.HANDLER_NAME, slowConsumerHandler);
+    }
+}
@@ -0,0 +1,154 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 느린 클라이언트 감지 및 송신 큐 상한
+ * 채널이 write buffer high water mark를 넘어 unwritable 상태가 되면 해당 클라이언트를 throttled로 보고,
+ * 손실돼도 되는 이벤트(AI 청크, 읽음 표시, 타이핑)는 인코딩 전에 패킷 큐에서 제거한다.
+ * AI 청크는 매번 fullContent를 담고 aiMessageComplete가 최종본을 보내므로 제거가 곧 최신 값으로의 병합이 된다.
+ * unwritable 상태에서 쌓인 바이트나 이벤트 수가 hard limit을 넘으면 연결을 끊어 힙 증가를 막는다.
+ *
+ * <p>로컬 전송과 Redis pub/sub으로 전달된 다른 노드의 브로드캐스트가 모두 이 핸들러를 거친다.
+ */
+@Slf4j
+@Component
+@ChannelHandler.Sharable
+@ConditionalOnProperty(name = "socketio.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowConsumerHandler extends ChannelDuplexHandler {
+
+    public static final String HANDLER_NAME = "slowConsumerHandler";
+
+    private static final AttributeKey<AtomicInteger> PENDING_EVENTS =
+            AttributeKey.valueOf(SlowConsumerHandler.class, "pendingEvents");
+    private static final ClosedChannelException SLOW_CONSUMER_CLOSED = new ClosedChannelException();
+
+    private final Set<String> droppableEvents;
+    private final long hardLimitBytes;
+    private final int maxPendingEvents;
+    private final AtomicInteger throttledClients = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> droppedCounters = new ConcurrentHashMap<>();
+    private final Counter disconnectCounter;
+
+    public SlowConsumerHandler(
+            MeterRegistry meterRegistry,
+            @Value("${chatapp.socketio.outbound.droppable-events:aiMessageChunk,messagesRead,typing}") Set<String> droppableEvents,
+            @Value("${chatapp.socketio.outbound.hard-limit-bytes:4194304}") long hardLimitBytes,
+            @Value("${chatapp.socketio.outbound.max-pending-events:2000}") int maxPendingEvents) {
+        this.meterRegistry = meterRegistry;
+        this.droppableEvents = Set.copyOf(droppableEvents);
+        this.hardLimitBytes = hardLimitBytes;
+        this.maxPendingEvents = maxPendingEvents;
+        Gauge.builder("socketio.outbound.throttled.clients", throttledClients, AtomicInteger::get)
+                .description("Clients whose channel is over the write buffer high water mark")
+                .register(meterRegistry);
+        this.disconnectCounter = Counter.builder("socketio.outbound.disconnects")
+                .description("Clients disconnected for exceeding the outbound hard limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        Channel channel = ctx.channel();
+        if (!(msg instanceof OutPacketMessage outPacket) || channel.isWritable()) {
+            ctx.write(msg, promise);
+            return;
+        }
+
+        AtomicInteger pendingEvents = markThrottled(channel);
+        Queue<Packet> queue = outPacket.getClientHead().getPacketsQueue(outPacket.getTransport());
+        queue.removeIf(this::dropIfDroppable);
+        // 큐는 아직 인코딩되지 않은 이벤트 전체이므로 누적하지 않고 현재 크기로 덮어쓴다
+        int pending = queue.size();
+        pendingEvents.set(pending);
+
+        if (pendingBytes(channel) > hardLimitBytes || pending > maxPendingEvents) {
+            log.warn("Disconnecting slow consumer - sessionId: {}, pendingBytes: {}, pendingEvents: {}",
+                    outPacket.getClientHead().getSessionId(), pendingBytes(channel), pending);
+            disconnectCounter.increment();
+            queue.clear();
+            promise.tryFailure(SLOW_CONSUMER_CLOSED);
+            ctx.close();
+            return;
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            clearThrottled(ctx.channel());
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        clearThrottled(ctx.channel());
+        super.channelInactive(ctx);
+    }
+
+    public int getThrottledClients() {
+        return throttledClients.get();
+    }
+
+    private AtomicInteger markThrottled(Channel channel) {
+        AtomicInteger pendingEvents = channel.attr(PENDING_EVENTS).get();
+        if (pendingEvents == null) {
+            pendingEvents = new AtomicInteger();
+            channel.attr(PENDING_EVENTS).set(pendingEvents);
+            throttledClients.incrementAndGet();
+        }
+        return pendingEvents;
+    }
+
+    private void clearThrottled(Channel channel) {
+        if (channel.attr(PENDING_EVENTS).getAndSet(null) != null) {
+            throttledClients.decrementAndGet();
+        }
+    }
+
+    private boolean dropIfDroppable(Packet packet) {
+        if (packet.getType() != PacketType.MESSAGE || packet.getSubType() != PacketType.EVENT
+                || !droppableEvents.contains(packet.getName())) {
+            return false;
+        }
+        droppedCounter(packet.getName()).increment();
+        return true;
+    }
+
+    private long pendingBytes(Channel channel) {
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        return buffer != null ? buffer.totalPendingWriteBytes() : 0;
+    }
+
+    private Counter droppedCounter(String event) {
+        return droppedCounters.computeIfAbsent(event, name -> Counter.builder("socketio.outbound.dropped")
+                .description("Non-critical events dropped for throttled clients")
+                .tag("event", name)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,164 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.config.RedisTestContainer;
+import com.ktb.chatapp.dto.MessageResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MessageHistoryStore 통합 테스트
+ * APPEND, READ_BEFORE, SEED, PATCH, UNSEED 스크립트를 실제 Redis에서 실행한다.
+ */
+@SpringBootTest
+@Import({MongoTestContainer.class, RedisTestContainer.class})
+@TestPropertySource(properties = {
+    "socketio.enabled=false"
+})
+@DisplayName("MessageHistoryStore 통합 테스트")
+class MessageHistoryStoreTest {
+
+    private static final int MAX_MESSAGES = 2000;
+
+    @Autowired
+    private MessageHistoryStore messageHistoryStore;
+
+    private static String roomId() {
+        return "history-test-" + UUID.randomUUID();
+    }
+
+    private static MessageResponse message(String roomId, long timestamp) {
+        return MessageResponse.builder()
+                .id("m" + timestamp)
+                .roomId(roomId)
+                .content("hello " + timestamp)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static List<MessageResponse> messages(String roomId, long fromInclusive, long toInclusive) {
+        return LongStream.rangeClosed(fromInclusive, toInclusive).mapToObj(i -> message(roomId, i)).toList();
+    }
+
+    private static List<String> ids(HistoryPage page) {
+        return page.messages().stream().map(MessageResponse::getId).toList();
+    }
+
+    @Test
+    @DisplayName("append는 버전을 올리고 최대 건수를 넘으면 오래된 메시지를 지우며 full 마커를 tail로 바꾼다")
+    void append_trimsOldestAndDowngradesFullMarker() {
+        String roomId = roomId();
+        assertThat(messageHistoryStore.seed(roomId, messages(roomId, 1, MAX_MESSAGES), true)).isTrue();
+        long seededVersion = messageHistoryStore.getLast(roomId, 1).version();
+        assertThat(messageHistoryStore.getLast(roomId, 1).complete()).isTrue();
+
+        long version = messageHistoryStore.append(roomId, message(roomId, MAX_MESSAGES + 1));
+
+        assertThat(version).isEqualTo(seededVersion + 1);
+        assertThat(messageHistoryStore.getSize(roomId)).isEqualTo(MAX_MESSAGES);
+        HistoryPage oldest = messageHistoryStore.getBefore(roomId, 3, 10);
+        assertThat(ids(oldest)).containsExactly("m2");
+        assertThat(oldest.seeded()).isTrue();
+        assertThat(oldest.complete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("커서 이전(미포함) 최근 limit건을 시간순으로 읽는다")
+    void getBefore_readsLimitMessagesBeforeCursorInOrder() {
+        String roomId = roomId();
+        messageHistoryStore.seed(roomId, messages(roomId, 1, 10), true);
+
+        assertThat(ids(messageHistoryStore.getLast(roomId, 3))).containsExactly("m8", "m9", "m10");
+        assertThat(ids(messageHistoryStore.getBefore(roomId, 8, 3))).containsExactly("m5", "m6", "m7");
+        assertThat(ids(messageHistoryStore.getBefore(roomId, 3, 5))).containsExactly("m1", "m2");
+        assertThat(messageHistoryStore.getBefore(roomId, 1, 5).messages()).isEmpty();
+        assertThat(messageHistoryStore.getLast(roomId, 0).messages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("seed는 complete 여부에 따라 full/tail 마커를 남기고 이미 채워진 이력은 다시 채우지 않는다")
+    void seed_marksFullOrTailAndRunsOnce() {
+        String fullRoom = roomId();
+        String tailRoom = roomId();
+        String emptyRoom = roomId();
+
+        assertThat(messageHistoryStore.getLast(fullRoom, 5).seeded()).isFalse();
+
+        assertThat(messageHistoryStore.seed(fullRoom, messages(fullRoom, 1, 3), true)).isTrue();
+        assertThat(messageHistoryStore.seed(fullRoom, messages(fullRoom, 1, 5), true)).isFalse();
+        HistoryPage full = messageHistoryStore.getLast(fullRoom, 10);
+        assertThat(full.seeded()).isTrue();
+        assertThat(full.complete()).isTrue();
+        assertThat(ids(full)).containsExactly("m1", "m2", "m3");
+
+        assertThat(messageHistoryStore.seed(tailRoom, messages(tailRoom, 5, 6), false)).isTrue();
+        HistoryPage tail = messageHistoryStore.getLast(tailRoom, 10);
+        assertThat(tail.seeded()).isTrue();
+        assertThat(tail.complete()).isFalse();
+
+        // 메시지가 없는 방도 마커를 남겨 빈 이력을 신뢰할 수 있게 한다
+        assertThat(messageHistoryStore.seed(emptyRoom, List.of(), true)).isTrue();
+        HistoryPage empty = messageHistoryStore.getLast(emptyRoom, 10);
+        assertThat(empty.seeded()).isTrue();
+        assertThat(empty.complete()).isTrue();
+        assertThat(empty.messages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("seed는 채우기 전에 append된 메시지와 ID 기준으로 합쳐진다")
+    void seed_mergesWithMessagesAppendedBeforeSeeding() {
+        String roomId = roomId();
+        messageHistoryStore.append(roomId, message(roomId, 3));
+        assertThat(messageHistoryStore.getLast(roomId, 10).seeded()).isFalse();
+
+        assertThat(messageHistoryStore.seed(roomId, messages(roomId, 1, 3), true)).isTrue();
+
+        assertThat(ids(messageHistoryStore.getLast(roomId, 10))).containsExactly("m1", "m2", "m3");
+    }
+
+    @Test
+    @DisplayName("unseed 후에는 이력을 신뢰하지 않고 다음 seed가 다시 채운다")
+    void unseed_clearsMarkerSoNextSeedRefills() {
+        String roomId = roomId();
+        messageHistoryStore.seed(roomId, messages(roomId, 1, 2), true);
+        long version = messageHistoryStore.getLast(roomId, 1).version();
+
+        messageHistoryStore.unseed(roomId);
+
+        HistoryPage unseeded = messageHistoryStore.getLast(roomId, 10);
+        assertThat(unseeded.seeded()).isFalse();
+        assertThat(unseeded.version()).isGreaterThan(version);
+        assertThat(messageHistoryStore.seed(roomId, messages(roomId, 1, 3), true)).isTrue();
+        assertThat(ids(messageHistoryStore.getLast(roomId, 10))).containsExactly("m1", "m2", "m3");
+    }
+
+    @Test
+    @DisplayName("patch는 이력에 있는 메시지만 갱신하고 읽을 때 덮어쓴 값을 적용한다")
+    void patch_skipsMissingIdsAndOverlaysOnRead() {
+        String roomId = roomId();
+        messageHistoryStore.seed(roomId, messages(roomId, 1, 2), true);
+        Map<String, Set<String>> reactions = Map.of("👍", Set.of("user-1"));
+
+        long patched = messageHistoryStore.patch(roomId, List.of(
+                HistoryPatch.reactions("m1", reactions),
+                HistoryPatch.reactions("missing", reactions),
+                new HistoryPatch("m2", null, null)));
+
+        assertThat(patched).isEqualTo(1);
+        List<MessageResponse> page = messageHistoryStore.getLast(roomId, 10).messages();
+        assertThat(page.get(0).getReactions()).isEqualTo(reactions);
+        assertThat(page.get(1).getReactions()).isNullOrEmpty();
+        assertThat(messageHistoryStore.getSize(roomId)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageHistoryWriterTest {
+
+    private final MessageHistoryStore messageHistoryStore = mock(MessageHistoryStore.class);
+    private final RecentMessageCache recentMessageCache = mock(RecentMessageCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageHistoryWriter writer =
+            new MessageHistoryWriter(messageHistoryStore, recentMessageCache, meterRegistry);
+
+    private static MessageResponse message() {
+        return MessageResponse.builder().id("m1").roomId("room-1").content("hello").timestamp(1L).build();
+    }
+
+    @Test
+    void append_recordsInL1WithTheAppendedVersion() {
+        MessageResponse message = message();
+        when(messageHistoryStore.append("room-1", message)).thenReturn(7L);
+
+        writer.append(message);
+
+        verify(recentMessageCache).record(message, 7L);
+        verify(messageHistoryStore, never()).unseed(any());
+    }
+
+    @Test
+    void append_failureUnseedsRedisHistorySoTheNextReadReseedsFromMongo() {
+        MessageResponse message = message();
+        when(messageHistoryStore.append("room-1", message))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        writer.append(message);
+
+        verify(recentMessageCache).evict("room-1");
+        verify(messageHistoryStore).unseed("room-1");
+        verify(recentMessageCache, never()).record(any(), anyLong());
+        assertThat(meterRegistry.get("history.append.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void append_unseedFailureIsNotPropagatedToTheSendPath() {
+        MessageResponse message = message();
+        when(messageHistoryStore.append("room-1", message))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(messageHistoryStore).unseed("room-1");
+
+        writer.append(message);
+
+        verify(recentMessageCache).evict("room-1");
+    }
+}
@@ -0,0 +1,208 @@
+package com.ktb.chatapp.service;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecentMessageCacheTest {
+
+    private final RTopic eventTopic = mock(RTopic.class);
+    private final RedissonClient redissonClient = redissonClient(eventTopic);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecentMessageCache cache = newCache(1 << 20);
+
+    private RecentMessageCache newCache(long maxBytes) {
+        return new RecentMessageCache(
+                meterRegistry, redissonClient, objectMapper, true, 5, maxBytes, Duration.ofMinutes(1));
+    }
+
+    private static RedissonClient redissonClient(RTopic topic) {
+        RedissonClient client = mock(RedissonClient.class);
+        when(client.getTopic(anyString(), any())).thenReturn(topic);
+        return client;
+    }
+
+    private static MessageResponse message(String roomId, long timestamp) {
+        return MessageResponse.builder()
+                .id("m" + timestamp)
+                .roomId(roomId)
+                .content("hello")
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static List<MessageResponse> page(String roomId, int fromInclusive, int toExclusive) {
+        return IntStream.range(fromInclusive, toExclusive).mapToObj(i -> message(roomId, i)).toList();
+    }
+
+    private static List<Long> timestamps(List<MessageResponse> messages) {
+        return messages.stream().map(MessageResponse::getTimestamp).toList();
+    }
+
+    @Test
+    void getBefore_servesOnlyWhenRingHoldsFullPage() {
+        cache.seed("room", Long.MAX_VALUE, page("room", 10, 13), 1);
+
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 3)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(10L, 11L, 12L));
+        assertThat(cache.getBefore("room", 12, 2)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(10L, 11L));
+        // 10 이전 메시지는 ring 밖에 있을 수 있으므로 하위 저장소로 넘긴다
+        assertThat(cache.getBefore("room", 12, 3)).isEmpty();
+    }
+
+    @Test
+    void record_keepsNewestMessagesInOrderWithoutDuplicates() {
+        long version = 0;
+        for (long ts : new long[] {1, 2, 4, 3, 5, 6, 6}) {
+            cache.record(message("room", ts), ++version);
+        }
+
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 5)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(2L, 3L, 4L, 5L, 6L));
+    }
+
+    @Test
+    void seed_ignoresPagesThatWouldLeaveAGap() {
+        // 최신이 아닌 페이지로는 ring을 시작하지 않는다
+        cache.seed("room", 100, page("room", 90, 93), 1);
+        assertThat(cache.contains("room")).isFalse();
+
+        cache.seed("room", Long.MAX_VALUE, page("room", 20, 22), 1);
+        cache.seed("room", 15, page("room", 12, 15), 1);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 2)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(20L, 21L));
+
+        // 커서가 ring 안쪽이면 이전 페이지를 앞에 이어 붙인다
+        cache.seed("room", 20, page("room", 17, 20), 1);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 5)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(17L, 18L, 19L, 20L, 21L));
+    }
+
+    @Test
+    void record_withMissingVersionStopsServingRoomUntilHealedOrDropped() {
+        cache.record(message("room", 1), 1);
+        cache.record(message("room", 2), 2);
+        // 버전 3 기록이 전달되지 않았다
+        cache.record(message("room", 4), 4);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 2)).isEmpty();
+
+        // 늦게 도착하면 보류한 기록까지 이어서 반영한다
+        cache.record(message("room", 3), 3);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 4)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(1L, 2L, 3L, 4L));
+
+        // 최신 페이지가 더 새 버전이면 ring을 그 페이지로 다시 시작한다
+        cache.record(message("room", 6), 6);
+        cache.seed("room", Long.MAX_VALUE, page("room", 3, 7), 6);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 4)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(3L, 4L, 5L, 6L));
+
+        // 빠진 버전이 끝내 오지 않으면 방을 내린다
+        for (long version = 8; version <= 40; version++) {
+            cache.record(message("room", version), version);
+        }
+        assertThat(cache.contains("room")).isFalse();
+        assertThat(meterRegistry.get("history.l1.gaps").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getBefore_dropsRingsNotWrittenWithinMaxAge() {
+        RecentMessageCache expiring = new RecentMessageCache(
+                meterRegistry, redissonClient, objectMapper, true, 5, 1 << 20, Duration.ZERO);
+        expiring.seed("room", Long.MAX_VALUE, page("room", 1, 4), 1);
+
+        assertThat(expiring.getBefore("room", Long.MAX_VALUE, 3)).isEmpty();
+        assertThat(expiring.contains("room")).isFalse();
+    }
+
+    @Test
+    void seed_evictsLeastRecentlyUsedRoomsOverBudget() {
+        RecentMessageCache small = newCache(
+                RecentMessageCache.estimateBytes(message("a", 1)) * 4);
+        small.seed("a", Long.MAX_VALUE, page("a", 0, 2), 1);
+        small.seed("b", Long.MAX_VALUE, page("b", 0, 2), 1);
+        small.getBefore("a", Long.MAX_VALUE, 1);
+        small.record(message("c", 1), 1);
+
+        assertThat(small.contains("a")).isTrue();
+        assertThat(small.contains("b")).isFalse();
+        assertThat(small.contains("c")).isTrue();
+    }
+
+    @Test
+    void patch_replacesCachedEntryAndPublishesToOtherNodes() {
+        cache.seed("room", Long.MAX_VALUE, page("room", 1, 4), 1);
+
+        cache.patch("room", List.of(HistoryPatch.reactions("m2", Map.of("👍", Set.of("user-1")))));
+
+        List<MessageResponse> cached = cache.getBefore("room", Long.MAX_VALUE, 3).orElseThrow();
+        assertThat(cached.get(1).getReactions()).containsEntry("👍", Set.of("user-1"));
+        assertThat(cached.get(0).getReactions()).isNullOrEmpty();
+        verify(eventTopic).publish(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void events_reachOtherNodesOverTopicButAreNotReappliedLocally() {
+        // 같은 topic을 쓰는 두 노드
+        RecentMessageCache other = newCache(1 << 20);
+        ArgumentCaptor<MessageListener<String>> listeners = ArgumentCaptor.forClass(MessageListener.class);
+        when(eventTopic.addListener(eq(String.class), listeners.capture())).thenReturn(1, 2);
+        cache.subscribe();
+        other.subscribe();
+        cache.seed("room", Long.MAX_VALUE, page("room", 1, 4), 3);
+        other.seed("room", Long.MAX_VALUE, page("room", 1, 4), 3);
+
+        Message.MessageReader reader = new Message.MessageReader("user-2", LocalDateTime.of(2025, 1, 1, 9, 30));
+        cache.patch("room", List.of(HistoryPatch.readers("m3", List.of(reader))));
+
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(eventTopic).publish(published.capture());
+        assertThat(published.getValue()).doesNotContain("\"empty\"");
+        deliver(listeners.getAllValues(), published.getValue());
+
+        assertThat(other.getBefore("room", Long.MAX_VALUE, 3).orElseThrow().get(2).getReaders())
+                .containsExactly(reader);
+        assertThat(cache.getBefore("room", Long.MAX_VALUE, 3).orElseThrow().get(2).getReaders())
+                .containsExactly(reader);
+
+        // 다른 노드의 기록은 캐시 중인 방에만 이어 붙인다
+        cache.record(message("room", 4), 4);
+        cache.record(message("elsewhere", 1), 1);
+        ArgumentCaptor<String> appended = ArgumentCaptor.forClass(String.class);
+        verify(eventTopic, times(3)).publish(appended.capture());
+        appended.getAllValues().subList(1, 3).forEach(json -> deliver(listeners.getAllValues(), json));
+
+        assertThat(other.getBefore("room", Long.MAX_VALUE, 4)).get()
+                .extracting(RecentMessageCacheTest::timestamps).isEqualTo(List.of(1L, 2L, 3L, 4L));
+        assertThat(other.contains("elsewhere")).isFalse();
+    }
+
+    private static void deliver(List<MessageListener<String>> listeners, String json) {
+        listeners.forEach(listener -> listener.onMessage("history:l1:events", json));
+    }
+}
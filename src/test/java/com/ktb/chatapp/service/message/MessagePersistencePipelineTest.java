@@ -0,0 +1,129 @@
+package com.ktb.chatapp.service.message;
+
+import com.ktb.chatapp.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MessagePersistencePipelineTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MessagePersistencePipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    private MessagePersistencePipeline createPipeline(String ackMode, long flushIntervalMs) {
+        var created = new MessagePersistencePipeline(
+                mongoTemplate, meterRegistry, ackMode, 64, flushIntervalMs, 1000, 5000);
+        created.start();
+        return created;
+    }
+
+    private Message message(String roomId) {
+        Message message = new Message();
+        message.setRoomId(roomId);
+        message.setContent("hello");
+        return message;
+    }
+
+    @Test
+    void persist_durableMode_assignsIdAndWaitsForInsert() {
+        pipeline = createPipeline("durable", 1);
+
+        Message saved = pipeline.persist(message("room-1"));
+
+        assertThat(saved.getId()).hasSize(24);
+        verify(mongoTemplate).insert(anyCollection(), eq(Message.class));
+    }
+
+    @Test
+    void enqueue_groupsBurstIntoSingleInsertMany() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(mongoTemplate.insert(anyCollection(), eq(Message.class))).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            return batch;
+        });
+        pipeline = createPipeline("durable", 200);
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pipeline.enqueue(message("room-1")));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(batchSizes).hasSizeLessThan(20);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(20);
+        assertThat(meterRegistry.get("chat.messages.persist.batch.size").summary().count())
+                .isEqualTo(batchSizes.size());
+    }
+
+    @Test
+    void persist_enqueueMode_returnsBeforeFlush() {
+        pipeline = createPipeline("enqueue", 1);
+
+        Message saved = pipeline.persist(message("room-1"));
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(pipeline.getAckMode()).isEqualTo(MessagePersistencePipeline.AckMode.ENQUEUE);
+    }
+
+    @Test
+    void flush_fallsBackToSingleInsertsWhenBatchFails() throws Exception {
+        when(mongoTemplate.insert(anyCollection(), eq(Message.class)))
+                .thenThrow(new RuntimeException("bulk failure"));
+        pipeline = createPipeline("durable", 1);
+
+        Message saved = pipeline.enqueue(message("room-1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(saved.getId()).isNotNull();
+        verify(mongoTemplate).insert(any(Message.class));
+    }
+
+    @Test
+    void interruptedFlusher_writesBatchInHandAndStopDrainsTheQueue() throws Exception {
+        pipeline = createPipeline("durable", 5000);
+        CompletableFuture<Message> inHand = pipeline.enqueue(message("room-1"));
+        Thread flusher = flusherThread();
+        // 첫 메시지를 받은 뒤 flush-interval 동안 배치를 모으는 중에 중단시킨다
+        Thread.sleep(100);
+        flusher.interrupt();
+
+        assertThat(inHand.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+
+        CompletableFuture<Message> queued = pipeline.enqueue(message("room-1"));
+        assertThat(queued).isNotDone();
+        pipeline.stop();
+
+        assertThat(queued).isCompleted();
+        verify(mongoTemplate).insert(any(Message.class));
+    }
+
+    private static Thread flusherThread() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("message-persist-flusher") && thread.isAlive())
+                .findFirst()
+                .orElseThrow();
+    }
+}
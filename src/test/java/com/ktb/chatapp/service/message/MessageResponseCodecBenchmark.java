@@ -0,0 +1,55 @@
+package com.ktb.chatapp.service.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.MessageResponse;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+/**
+ * 캐시 직렬화 형식 비교용 마이크로 벤치마크 (수동 실행)
+ * 메시지당 저장 바이트와 역직렬화 시간을 기존 JSON 형식과 비교해 출력한다.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ktb.chatapp.service.message.MessageResponseCodecBenchmark
+ * </pre>
+ */
+public class MessageResponseCodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int MEASURE_ROUNDS = 1_000_000;
+
+    public static void main(String[] args) {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(
+                new ObjectMapper().registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        MessageResponseCodec binary = new MessageResponseCodec(json, 1024);
+
+        List<MessageResponse> samples = List.of(
+                MessageResponseCodecTest.sample("점심 뭐 먹을까요?"),
+                MessageResponseCodecTest.sample("긴 메시지 ".repeat(300)));
+
+        for (MessageResponse sample : samples) {
+            System.out.printf("content length %d%n", sample.getContent().length());
+            report("json", json.serialize(sample), bytes -> json.deserialize(bytes, MessageResponse.class));
+            report("binary", binary.serialize(sample), binary::deserialize);
+        }
+    }
+
+    private static void report(String name, byte[] encoded, Function<byte[], MessageResponse> decoder) {
+        MessageResponse sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = decoder.apply(encoded);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            sink = decoder.apply(encoded);
+        }
+        double nanosPerMessage = (System.nanoTime() - start) / (double) MEASURE_ROUNDS;
+        System.out.printf("  %-6s bytes=%5d decode=%8.1f ns/msg (%s)%n",
+                name, encoded.length, nanosPerMessage, sink != null ? "ok" : "null");
+    }
+}
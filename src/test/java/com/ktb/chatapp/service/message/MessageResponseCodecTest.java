@@ -0,0 +1,81 @@
+package com.ktb.chatapp.service.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.FileResponse;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.dto.UserResponse;
+import com.ktb.chatapp.model.AiType;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageResponseCodecTest {
+
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer(
+            new ObjectMapper().registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    private final MessageResponseCodec codec = new MessageResponseCodec(legacySerializer, 1024);
+
+    static MessageResponse sample(String content) {
+        return MessageResponse.builder()
+                .id("6650f1a2c3d4e5f601234567")
+                .roomId("6650f1a2c3d4e5f601234500")
+                .content(content)
+                .sender(new UserResponse("user-1", "tester", "tester@example.com", "https://cdn.example.com/p.png"))
+                .type(MessageType.file)
+                .file(new FileResponse("file-1", "a.png", "원본.png", "image/png", 1234, "user-1",
+                        LocalDateTime.of(2025, 1, 2, 3, 4, 5, 600_000_000)))
+                .aiType(AiType.WAYNE_AI)
+                .timestamp(1_735_787_045_600L)
+                .reactions(Map.of("👍", Set.of("user-2", "user-3")))
+                .readers(List.of(new Message.MessageReader("user-2", LocalDateTime.of(2025, 1, 2, 3, 5))))
+                .metadata(Map.of("fileType", "image/png", "fileSize", 1234))
+                .build();
+    }
+
+    @Test
+    void roundTrip_preservesAllFields() {
+        MessageResponse message = sample("안녕하세요");
+
+        byte[] encoded = codec.serialize(message);
+
+        assertThat(encoded[0]).isEqualTo(MessageResponseCodec.MAGIC);
+        assertThat(codec.deserialize(encoded)).isEqualTo(message);
+    }
+
+    @Test
+    void roundTrip_keepsNullFields() {
+        MessageResponse message = MessageResponse.builder().id("msg-1").timestamp(1L).build();
+
+        assertThat(codec.deserialize(codec.serialize(message))).isEqualTo(message);
+    }
+
+    @Test
+    void longContent_isCompressed() {
+        MessageResponse message = sample("긴 메시지 ".repeat(500));
+
+        byte[] encoded = codec.serialize(message);
+
+        assertThat(encoded[2] & 1).isEqualTo(1);
+        assertThat(encoded.length).isLessThan(message.getContent().length());
+        assertThat(codec.deserialize(encoded)).isEqualTo(message);
+    }
+
+    @Test
+    void deserialize_readsLegacyJsonEntries() {
+        MessageResponse message = sample("legacy");
+
+        byte[] legacy = legacySerializer.serialize(message);
+
+        assertThat(codec.deserialize(legacy)).isEqualTo(message);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ktb.chatapp.service.ratelimit;
+
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class HybridRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private static final String KEY = "client:10:60000";
+
+    private final RateLimitStore store = mock(RateLimitStore.class);
+    private final HybridRateLimiter limiter = limiter("fixed-window");
+
+    private HybridRateLimiter limiter(String algorithm) {
+        return new HybridRateLimiter(
+                store, new SimpleMeterRegistry(), algorithm, true, 0.8, Duration.ofMillis(250), 1000);
+    }
+
+    private static WindowUsage usage(boolean acquired, long used) {
+        return new WindowUsage(acquired, used, WINDOW.toMillis());
+    }
+
+    @Test
+    void tryAcquire_allowsLocallyBelowThresholdAndSyncsDelta() {
+        when(store.addUsage(eq(KEY), anyLong(), eq(true), anyInt(), any()))
+                .thenReturn(Optional.of(usage(true, 1)));
+        when(store.addUsage(eq(KEY), anyLong(), eq(false), anyInt(), any()))
+                .thenReturn(Optional.of(usage(false, 5)));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", 10, WINDOW)).get()
+                    .extracting(RateLimitCheckResult::allowed).isEqualTo(true);
+        }
+        // 첫 요청만 저장소를 확인하고 나머지 4건은 로컬에서 허용된다
+        verify(store, times(1)).addUsage(eq(KEY), anyLong(), eq(true), anyInt(), any());
+
+        limiter.sync();
+        verify(store).addUsage(KEY, 4, false, 10, WINDOW);
+    }
+
+    @Test
+    void tryAcquire_escalatesNearLimitAndCachesRejection() {
+        when(store.addUsage(eq(KEY), anyLong(), eq(true), anyInt(), any()))
+                .thenReturn(Optional.of(usage(true, 8)))
+                .thenReturn(Optional.of(usage(false, 10)));
+
+        assertThat(limiter.tryAcquire("client", 10, WINDOW).orElseThrow().allowed()).isTrue();
+        assertThat(limiter.tryAcquire("client", 10, WINDOW).orElseThrow().allowed()).isFalse();
+        assertThat(limiter.tryAcquire("client", 10, WINDOW).orElseThrow().allowed()).isFalse();
+
+        verify(store, times(2)).addUsage(eq(KEY), anyLong(), anyBoolean(), anyInt(), any());
+    }
+
+    @Test
+    void tryAcquire_reservesLocallyAtomicallyUnderContention() throws Exception {
+        when(store.addUsage(eq(KEY), anyLong(), eq(true), anyInt(), any()))
+                .thenReturn(Optional.of(usage(true, 1)))
+                .thenReturn(Optional.of(usage(false, 10)));
+
+        limiter.tryAcquire("client", 10, WINDOW);
+        AtomicInteger allowed = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> {
+                    if (limiter.tryAcquire("client", 10, WINDOW).orElseThrow().allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        // 사용량 1에서 로컬 한도(8)까지 7건만 저장소 없이 허용된다
+        assertThat(allowed.get()).isEqualTo(7);
+    }
+
+    @Test
+    void tryAcquire_keepsSeparateCountersPerLimit() {
+        when(store.addUsage(anyString(), anyLong(), eq(true), anyInt(), any()))
+                .thenReturn(Optional.of(usage(true, 1)));
+
+        limiter.tryAcquire("client", 10, WINDOW);
+        limiter.tryAcquire("client", 100, WINDOW);
+
+        verify(store).addUsage(KEY, 0, true, 10, WINDOW);
+        verify(store).addUsage("client:100:60000", 0, true, 100, WINDOW);
+    }
+
+    @Test
+    void tryAcquire_leavesOtherAlgorithmsToTheStore() {
+        assertThat(limiter("sliding-window").tryAcquire("client", 10, WINDOW)).isEmpty();
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void tryAcquire_returnsEmptyWhenStoreHasNoUsageCounter() {
+        when(store.addUsage(any(), anyLong(), anyBoolean(), anyInt(), any())).thenReturn(Optional.empty());
+
+        assertThat(limiter.tryAcquire("client", 10, WINDOW)).isEmpty();
+        assertThat(limiter.tryAcquire("client", 10, WINDOW)).isEmpty();
+        verify(store, times(1)).addUsage(any(), anyLong(), anyBoolean(), anyInt(), any());
+    }
+}
@@ -0,0 +1,126 @@
+package com.ktb.chatapp.service.ratelimit;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.config.RedisTestContainer;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RateLimitRedisStore integration test.
+ * Runs each algorithm script and the hybrid usage script against a real Redis.
+ */
+@SpringBootTest
+@Import({MongoTestContainer.class, RedisTestContainer.class})
+@TestPropertySource(properties = {
+    "socketio.enabled=false",
+    "chatapp.rate-limit.store=redis"
+})
+@DisplayName("RateLimitRedisStore integration test")
+class RateLimitRedisStoreTest {
+
+    @Autowired
+    private RateLimitRedisStore rateLimitStore;
+
+    private static String clientId() {
+        return "ratelimit-test-" + UUID.randomUUID();
+    }
+
+    private RateLimitCheckResult acquire(String clientId, int maxRequests, Duration window, RateLimitAlgorithm algorithm) {
+        return rateLimitStore.acquire(clientId, maxRequests, window, algorithm).orElseThrow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(RateLimitAlgorithm.class)
+    @DisplayName("allows up to the limit, then rejects with a retryAfter inside the window")
+    void acquire_allowsUpToLimitThenRejects(RateLimitAlgorithm algorithm) {
+        String clientId = clientId();
+        Duration window = Duration.ofSeconds(60);
+
+        for (int expectedRemaining = 2; expectedRemaining >= 0; expectedRemaining--) {
+            RateLimitCheckResult allowed = acquire(clientId, 3, window, algorithm);
+            assertThat(allowed.allowed()).isTrue();
+            assertThat(allowed.remaining()).isEqualTo(expectedRemaining);
+        }
+
+        RateLimitCheckResult rejected = acquire(clientId, 3, window, algorithm);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.retryAfterSeconds()).isBetween(1L, 60L);
+        assertThat(rejected.resetEpochSeconds()).isGreaterThan(System.currentTimeMillis() / 1000 - 1);
+
+        // other clients have their own counters
+        assertThat(acquire(clientId(), 3, window, algorithm).allowed()).isTrue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(RateLimitAlgorithm.class)
+    @DisplayName("allows again once the window has passed")
+    void acquire_allowsAgainAfterWindow(RateLimitAlgorithm algorithm) throws InterruptedException {
+        String clientId = clientId();
+        Duration window = Duration.ofMillis(500);
+        acquire(clientId, 1, window, algorithm);
+        assertThat(acquire(clientId, 1, window, algorithm).allowed()).isFalse();
+
+        // sliding window weights the previous window, so wait two windows for it to drop out
+        Thread.sleep(window.multipliedBy(2).plusMillis(100).toMillis());
+
+        assertThat(acquire(clientId, 1, window, algorithm).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("GCRA spaces requests by window / limit after the burst is used")
+    void acquire_gcraAllowsOneRequestPerEmissionInterval() throws InterruptedException {
+        String clientId = clientId();
+        Duration window = Duration.ofMillis(1000);
+        acquire(clientId, 2, window, RateLimitAlgorithm.GCRA);
+        acquire(clientId, 2, window, RateLimitAlgorithm.GCRA);
+        assertThat(acquire(clientId, 2, window, RateLimitAlgorithm.GCRA).allowed()).isFalse();
+
+        Thread.sleep(600);
+
+        assertThat(acquire(clientId, 2, window, RateLimitAlgorithm.GCRA).allowed()).isTrue();
+        assertThat(acquire(clientId, 2, window, RateLimitAlgorithm.GCRA).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a non-positive limit rejects without touching Redis")
+    void acquire_rejectsNonPositiveLimit() {
+        RateLimitCheckResult result = acquire(clientId(), 0, Duration.ofSeconds(10), RateLimitAlgorithm.FIXED_WINDOW);
+
+        assertThat(result.allowed()).isFalse();
+        assertThat(result.retryAfterSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("addUsage adds local deltas and acquires only while below the limit")
+    void addUsage_addsDeltaAndAcquiresBelowLimit() {
+        String clientId = clientId();
+        Duration window = Duration.ofSeconds(60);
+
+        WindowUsage empty = rateLimitStore.addUsage(clientId, 0, false, 5, window).orElseThrow();
+        assertThat(empty.acquired()).isFalse();
+        assertThat(empty.used()).isZero();
+        assertThat(empty.resetAfterMillis()).isEqualTo(window.toMillis());
+
+        WindowUsage synced = rateLimitStore.addUsage(clientId, 3, true, 5, window).orElseThrow();
+        assertThat(synced.acquired()).isTrue();
+        assertThat(synced.used()).isEqualTo(4);
+        assertThat(synced.resetAfterMillis()).isBetween(1L, window.toMillis());
+
+        assertThat(rateLimitStore.addUsage(clientId, 0, true, 5, window).orElseThrow().acquired()).isTrue();
+        WindowUsage full = rateLimitStore.addUsage(clientId, 0, true, 5, window).orElseThrow();
+        assertThat(full.acquired()).isFalse();
+        assertThat(full.used()).isEqualTo(5);
+    }
+}
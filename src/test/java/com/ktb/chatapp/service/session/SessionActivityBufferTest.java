@@ -0,0 +1,59 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.model.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SessionActivityBufferTest {
+
+    private final SessionStore sessionStore = mock(SessionStore.class);
+    private final SessionActivityBuffer buffer = new SessionActivityBuffer(
+            sessionStore, new SimpleMeterRegistry(), true, Duration.ofSeconds(5));
+
+    private Session session(long lastActivity) {
+        return Session.builder()
+                .userId("user-1")
+                .sessionId("session-1")
+                .createdAt(lastActivity)
+                .lastActivity(lastActivity)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesLatestActivityOnce() {
+        buffer.remember(session(1_000));
+
+        assertThat(buffer.recordActivity("user-1", 3_000)).isTrue();
+        assertThat(buffer.recordActivity("user-1", 2_000)).isTrue();
+        assertThat(buffer.lastActivity("user-1", "session-1")).contains(3_000L);
+
+        buffer.flush();
+        buffer.flush();
+
+        ArgumentCaptor<Collection<SessionActivity>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sessionStore, times(1)).touchAll(captor.capture(), anyLong());
+        assertThat(captor.getValue()).containsExactly(new SessionActivity("user-1", "session-1", 3_000));
+    }
+
+    @Test
+    void recordActivity_fallsBackToStoreAfterEviction() {
+        buffer.remember(session(1_000));
+        buffer.evict("user-1");
+
+        assertThat(buffer.recordActivity("user-1", 2_000)).isFalse();
+        buffer.flush();
+        verify(sessionStore, never()).touchAll(any(), anyLong());
+    }
+}
@@ -0,0 +1,140 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.config.MongoTestContainer;
+import com.ktb.chatapp.config.RedisTestContainer;
+import com.ktb.chatapp.model.Session;
+import com.ktb.chatapp.service.SessionMetadata;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SessionRedisStore integration test.
+ * Runs the VALIDATE_AND_TOUCH, REPLACE, TOUCH_ALL and DELETE_IF_MATCHES scripts against a real Redis.
+ */
+@SpringBootTest
+@Import({MongoTestContainer.class, RedisTestContainer.class})
+@TestPropertySource(properties = {
+    "socketio.enabled=false",
+    "chatapp.session.store=redis"
+})
+@DisplayName("SessionRedisStore integration test")
+class SessionRedisStoreTest {
+
+    private static final long TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    @Autowired
+    private SessionRedisStore sessionStore;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private static String userId() {
+        return "session-test-" + UUID.randomUUID();
+    }
+
+    private static Session session(String userId, String sessionId, long lastActivity, SessionMetadata metadata) {
+        return Session.builder()
+                .userId(userId)
+                .sessionId(sessionId)
+                .createdAt(lastActivity)
+                .lastActivity(lastActivity)
+                .metadata(metadata)
+                .expiresAt(Instant.ofEpochMilli(lastActivity + TIMEOUT_MILLIS))
+                .build();
+    }
+
+    @Test
+    @DisplayName("save replaces the whole session and sets the key expiry")
+    void save_replacesPreviousSession() {
+        String userId = userId();
+        long now = System.currentTimeMillis();
+        sessionStore.save(session(userId, "s1", now, new SessionMetadata("agent", "127.0.0.1", "desktop")));
+
+        sessionStore.save(session(userId, "s2", now, null));
+
+        Session stored = sessionStore.findByUserId(userId).orElseThrow();
+        assertThat(stored.getSessionId()).isEqualTo("s2");
+        assertThat(stored.getLastActivity()).isEqualTo(now);
+        // fields of the previous session must not survive the replace
+        assertThat(stored.getMetadata()).isNull();
+        assertThat(redisTemplate.getExpire("session:" + userId)).isPositive();
+    }
+
+    @Test
+    @DisplayName("validateAndTouch refreshes a valid session in one call")
+    void validateAndTouch_refreshesValidSession() {
+        String userId = userId();
+        long now = System.currentTimeMillis();
+        sessionStore.save(session(userId, "s1", now - 1000, new SessionMetadata("agent", "127.0.0.1", "desktop")));
+
+        SessionTouchResult result = sessionStore.validateAndTouch(userId, "s1", now, TIMEOUT_MILLIS);
+
+        assertThat(result.status()).isEqualTo(SessionTouchResult.Status.VALID);
+        assertThat(result.session().getLastActivity()).isEqualTo(now);
+        assertThat(result.session().getExpiresAt()).isEqualTo(Instant.ofEpochMilli(now + TIMEOUT_MILLIS));
+        assertThat(result.session().getMetadata().userAgent()).isEqualTo("agent");
+        assertThat(sessionStore.findByUserId(userId).orElseThrow().getLastActivity()).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("validateAndTouch reports missing, mismatched and expired sessions")
+    void validateAndTouch_rejectsInvalidSessions() {
+        String userId = userId();
+        long now = System.currentTimeMillis();
+
+        assertThat(sessionStore.validateAndTouch(userId, "s1", now, TIMEOUT_MILLIS).status())
+                .isEqualTo(SessionTouchResult.Status.NOT_FOUND);
+
+        sessionStore.save(session(userId, "s1", now, null));
+        SessionTouchResult mismatch = sessionStore.validateAndTouch(userId, "other", now, TIMEOUT_MILLIS);
+        assertThat(mismatch.status()).isEqualTo(SessionTouchResult.Status.MISMATCH);
+        assertThat(mismatch.session().getSessionId()).isEqualTo("s1");
+        // a mismatch must not refresh the stored session
+        assertThat(sessionStore.findByUserId(userId).orElseThrow().getLastActivity()).isEqualTo(now);
+
+        SessionTouchResult expired = sessionStore.validateAndTouch(userId, "s1", now + TIMEOUT_MILLIS + 1, TIMEOUT_MILLIS);
+        assertThat(expired.status()).isEqualTo(SessionTouchResult.Status.EXPIRED);
+        assertThat(sessionStore.findByUserId(userId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("touchAll only moves lastActivity forward for the matching session")
+    void touchAll_appliesOnlyNewerActivityOfCurrentSession() {
+        String current = userId();
+        String replaced = userId();
+        long now = System.currentTimeMillis();
+        sessionStore.save(session(current, "s1", now, null));
+        sessionStore.save(session(replaced, "s2", now, null));
+
+        sessionStore.touchAll(List.of(
+                new SessionActivity(current, "s1", now + 500),
+                new SessionActivity(replaced, "stale", now + 500)), TIMEOUT_MILLIS);
+        sessionStore.touchAll(List.of(new SessionActivity(current, "s1", now + 100)), TIMEOUT_MILLIS);
+
+        assertThat(sessionStore.findByUserId(current).orElseThrow().getLastActivity()).isEqualTo(now + 500);
+        assertThat(sessionStore.findByUserId(replaced).orElseThrow().getLastActivity()).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("delete removes the session only when the session ID matches")
+    void delete_removesOnlyMatchingSession() {
+        String userId = userId();
+        sessionStore.save(session(userId, "s1", System.currentTimeMillis(), null));
+
+        sessionStore.delete(userId, "other");
+        assertThat(sessionStore.findByUserId(userId)).isPresent();
+
+        sessionStore.delete(userId, "s1");
+        assertThat(sessionStore.findByUserId(userId)).isEmpty();
+    }
+}
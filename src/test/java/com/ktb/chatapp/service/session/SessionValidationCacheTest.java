@@ -0,0 +1,67 @@
+package com.ktb.chatapp.service.session;
+
+import com.ktb.chatapp.model.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionValidationCacheTest {
+
+    private final RTopic topic = mock(RTopic.class);
+    private final SessionActivityBuffer activityBuffer = mock(SessionActivityBuffer.class);
+    private final SessionValidationCache cache = newCache();
+
+    private SessionValidationCache newCache() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString(), any())).thenReturn(topic);
+        return new SessionValidationCache(redissonClient, activityBuffer, new SimpleMeterRegistry(),
+                true, Duration.ofSeconds(5), 1000);
+    }
+
+    private Session session(long lastActivity) {
+        return Session.builder()
+                .userId("user-1")
+                .sessionId("session-1")
+                .lastActivity(lastActivity)
+                .build();
+    }
+
+    @Test
+    void get_returnsSessionUntilValidUntil() {
+        cache.put(session(1_000), 1_000);
+
+        assertThat(cache.get("user-1", "session-1", 5_999)).isPresent();
+        assertThat(cache.get("user-1", "session-1", 6_000)).isEmpty();
+        assertThat(cache.get("user-1", "session-2", 2_000)).isEmpty();
+    }
+
+    @Test
+    void get_neverOutlivesSessionTtl() {
+        long ttl = Duration.ofMinutes(30).toMillis();
+        cache.put(session(0), ttl - 1_000);
+
+        assertThat(cache.get("user-1", "session-1", ttl - 1)).isPresent();
+        assertThat(cache.get("user-1", "session-1", ttl)).isEmpty();
+    }
+
+    @Test
+    void revoke_invalidatesLocallyAndPublishes() {
+        cache.put(session(1_000), 1_000);
+
+        cache.revoke("user-1");
+
+        assertThat(cache.get("user-1", "session-1", 2_000)).isEmpty();
+        verify(activityBuffer).evict("user-1");
+        verify(topic).publish(endsWith(":user-1"));
+    }
+}
@@ -8,7 +8,9 @@ import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BannedWordCheckerTest {
@@ -54,4 +56,64 @@ class BannedWordCheckerTest {
         assertFalse(checker.containsBannedWord(null));
         assertFalse(checker.containsBannedWord("   "));
     }
+
+    @Test
+    void findBannedWord_returnsPositionThroughFailureLinks() {
+        BannedWordChecker checker = new BannedWordChecker(Set.of("he", "she", "hers", "his"));
+        assertThat(checker.findBannedWord("ushers"))
+                .contains(new BannedWordChecker.Match(1, 4));
+        assertThat(checker.findBannedWord("h-i-s")).isEmpty();
+    }
+
+    @Test
+    void containsBannedWord_foldsCaseWhileScanning() {
+        BannedWordChecker checker = new BannedWordChecker(BANNED_WORDS);
+        String message = "Prefix " + LOADED_WORDS.getFirst().toUpperCase() + " suffix";
+        assertTrue(checker.containsBannedWord(message));
+        assertThat(checker.findBannedWord(message))
+                .contains(new BannedWordChecker.Match(7, 7 + LOADED_WORDS.getFirst().length()));
+    }
+
+    @Test
+    void replaceWords_swapsDictionaryAndKeepsOldOneOnInvalidInput() {
+        BannedWordChecker checker = new BannedWordChecker(Set.of("alpha"));
+        checker.replaceWords(Set.of("beta"));
+        assertFalse(checker.containsBannedWord("alpha"));
+        assertTrue(checker.containsBannedWord("beta"));
+
+        assertThrows(IllegalArgumentException.class, () -> checker.replaceWords(Set.of(" ")));
+        assertTrue(checker.containsBannedWord("beta"));
+    }
+
+    @Test
+    void findBannedWord_normalizesWidthIgnorablesAndJamo() {
+        BannedWordChecker checker = new BannedWordChecker(Set.of("spam", "바보"));
+
+        assertThat(checker.findBannedWord("ｓｐａｍ!")).contains(new BannedWordChecker.Match(0, 4));
+        assertThat(checker.findBannedWord("x s\u200Bp\u200Da\u2060m")).contains(new BannedWordChecker.Match(2, 9));
+        // 분리된 자모(NFD)와 호환 자모 입력
+        assertTrue(checker.containsBannedWord("\u1107\u1161\u1107\u1169"));
+        assertTrue(checker.containsBannedWord("\u3142\u314F\u3142\u3157"));
+        assertFalse(checker.containsBannedWord("바 다"));
+    }
+
+    @Test
+    void findBannedWord_keepsSpacesAsWordBoundaries() {
+        BannedWordChecker checker = new BannedWordChecker(Set.of("ass", "바보"));
+
+        assertFalse(checker.containsBannedWord("he has sand"));
+        assertFalse(checker.containsBannedWord("a\u00A0s\u3000s"));
+        assertFalse(checker.containsBannedWord("바\u3164보"));
+        assertThat(checker.findBannedWord("glass")).contains(new BannedWordChecker.Match(2, 5));
+    }
+
+    @Test
+    void findBannedWord_doesNotJoinLettersSeparatedBySpaces() {
+        BannedWordChecker checker = new BannedWordChecker(Set.of("spam", "바보"));
+
+        // 알려진 한계: 공백을 단어 경계로 두므로 글자 사이에 공백을 넣은 입력은 통과한다
+        assertFalse(checker.containsBannedWord("s p a m"));
+        assertFalse(checker.containsBannedWord("바 보"));
+        assertTrue(checker.containsBannedWord("s\u200Bp\u200Ba\u200Bm"));
+    }
 }
@@ -0,0 +1,52 @@
+package com.ktb.chatapp.websocket.socketio;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.MessageType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodeOnceJsonSupportTest {
+
+    private final EncodeOnceJsonSupport jsonSupport = new EncodeOnceJsonSupport(new JavaTimeModule());
+
+    private String write(Object value) throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            jsonSupport.writeValue(new ByteBufOutputStream(buffer), value);
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void writeValue_preEncodedEventMatchesRegularEncoding() throws Exception {
+        MessageResponse response = new MessageResponse();
+        response.setId("msg-1");
+        response.setRoomId("room-1");
+        response.setContent("안녕하세요");
+        response.setType(MessageType.text);
+        response.setTimestamp(1700000000000L);
+        response.setReactions(Map.of());
+
+        PreEncodedEvent encoded = jsonSupport.encode(SocketIOEvents.MESSAGE, response);
+
+        assertThat(encoded).isNotNull();
+        assertThat(write(List.of(SocketIOEvents.MESSAGE, encoded)))
+                .isEqualTo(write(List.of(SocketIOEvents.MESSAGE, response)));
+    }
+
+    @Test
+    void encode_returnsNullForBinaryPayload() throws Exception {
+        assertThat(jsonSupport.encode("binary", Map.of("data", new byte[] {1, 2, 3}))).isNull();
+        assertThat(jsonSupport.getArrays()).isEmpty();
+    }
+}
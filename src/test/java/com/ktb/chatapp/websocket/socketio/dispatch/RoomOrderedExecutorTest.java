@@ -0,0 +1,83 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomOrderedExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoomOrderedExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new RoomOrderedExecutor(meterRegistry, 4, 1000);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.stop();
+    }
+
+    @Test
+    void submit_runsTasksOfOneRoomInSubmissionOrder() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            int seq = i;
+            futures.add(executor.submit("room-1", () -> {
+                order.add(seq);
+                return seq;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).isSorted().hasSize(100);
+        assertThat(meterRegistry.get("socketio.room_lanes.wait").timers().stream()
+                .mapToLong(timer -> timer.count()).sum()).isEqualTo(100);
+    }
+
+    @Test
+    void call_runsInlineWhenReenteringSameLane() {
+        String result = executor.call("room-1", () -> executor.call("room-1", () -> "nested"));
+
+        assertThat(result).isEqualTo("nested");
+    }
+
+    @Test
+    void call_propagatesTaskException() {
+        assertThatThrownBy(() -> executor.run("room-1", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    void run_keepsLaneAliveAfterTaskThrowsError() {
+        assertThatThrownBy(() -> executor.run("room-1", () -> {
+            throw new AssertionError("fatal");
+        })).hasRootCauseInstanceOf(AssertionError.class);
+
+        assertThat(executor.call("room-1", () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void call_timesOutWhenLaneIsStuck() {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        executor.submit("room-1", release::join);
+
+        assertThatThrownBy(() -> executor.call("room-1", () -> "late"))
+                .isInstanceOf(IllegalStateException.class);
+        release.complete(null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import com.corundumstudio.socketio.AckRequest;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.ktb.chatapp.annotation.RateLimit;
+import com.ktb.chatapp.service.RateLimitCheckResult;
+import com.ktb.chatapp.service.RateLimitService;
+import com.ktb.chatapp.websocket.socketio.SocketUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SocketEventRateLimiterTest {
+
+    private final RateLimitService rateLimitService = mock(RateLimitService.class);
+    private final SocketEventRateLimiter limiter = new SocketEventRateLimiter(rateLimitService,
+            new MockEnvironment().withProperty("chatapp.socketio.rate-limit.max-requests.fetchPreviousMessages", "5"),
+            new SimpleMeterRegistry());
+
+    @RateLimit(maxRequests = 100, windowSeconds = 60, scope = RateLimit.LimitScope.USER)
+    private void annotated() {
+    }
+
+    private RateLimit rateLimit() throws NoSuchMethodException {
+        return getClass().getDeclaredMethod("annotated").getAnnotation(RateLimit.class);
+    }
+
+    private SocketIOClient client() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.get("user")).thenReturn(new SocketUser("user-1", "tester", "session-1", "socket-1"));
+        return client;
+    }
+
+    @Test
+    void tryAcquire_countsPerEventAndAppliesPropertyOverride() throws Exception {
+        when(rateLimitService.checkRateLimit(anyString(), anyInt(), any()))
+                .thenReturn(RateLimitCheckResult.allowed(5, 4, 60, 0, 60));
+        SocketIOClient client = client();
+
+        assertThat(limiter.tryAcquire("fetchPreviousMessages", rateLimit(), client, null)).isTrue();
+        assertThat(limiter.tryAcquire("joinRoom", rateLimit(), client, null)).isTrue();
+
+        verify(rateLimitService).checkRateLimit("socket:fetchPreviousMessages:user:user-1", 5, Duration.ofSeconds(60));
+        verify(rateLimitService).checkRateLimit("socket:joinRoom:user:user-1", 100, Duration.ofSeconds(60));
+        verify(client, never()).sendEvent(eq(ERROR), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tryAcquire_rejectsWithErrorEventAndAck() throws Exception {
+        when(rateLimitService.checkRateLimit(anyString(), anyInt(), any()))
+                .thenReturn(RateLimitCheckResult.rejected(100, 60, 0, 12));
+        SocketIOClient client = client();
+        AckRequest ackRequest = mock(AckRequest.class);
+        when(ackRequest.isAckRequested()).thenReturn(true);
+
+        assertThat(limiter.tryAcquire("messageReaction", rateLimit(), client, ackRequest)).isFalse();
+
+        ArgumentCaptor<Map<String, Object>> payloadCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(client).sendEvent(eq(ERROR), payloadCaptor.capture());
+        assertThat(payloadCaptor.getValue()).containsEntry("code", "RATE_LIMIT_EXCEEDED");
+        verify(ackRequest).sendAckData(argThat((Object payload) ->
+                Boolean.FALSE.equals(((Map<?, ?>) payload).get("ok"))
+                        && Long.valueOf(12).equals(((Map<?, ?>) payload).get("retryAfter"))));
+    }
+}
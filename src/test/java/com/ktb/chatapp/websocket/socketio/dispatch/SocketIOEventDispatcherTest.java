@@ -0,0 +1,109 @@
+package com.ktb.chatapp.websocket.socketio.dispatch;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SocketIOEventDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SocketIOEventDispatcher dispatcher = new SocketIOEventDispatcher(
+            new MockEnvironment().withProperty("chatapp.socketio.dispatch.max-concurrency.slow", "2"),
+            meterRegistry, 256);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    private SocketIOClient client() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        return client;
+    }
+
+    @Test
+    void dispatch_runsEventsOfOneClientInOrder() throws Exception {
+        SocketIOClient client = client();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            int seq = i;
+            dispatcher.dispatch("chatMessage", client, () -> {
+                order.add(seq);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).isSorted().hasSize(50);
+        assertThat(meterRegistry.get("socketio.dispatch.queued.time").tag("event", "chatMessage")
+                .timer().count()).isEqualTo(50);
+    }
+
+    @Test
+    void dispatch_capsConcurrencyPerEventType() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            dispatcher.dispatch("slow", client(), () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void dispatch_keepsLaneAliveAfterHandlerThrowsError() throws Exception {
+        SocketIOClient client = client();
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.dispatch("chatMessage", client, () -> {
+            throw new AssertionError("boom");
+        });
+        dispatcher.dispatch("chatMessage", client, done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void dispatch_doesNotRecreateLaneAfterDisconnect() throws Exception {
+        SocketIOClient client = client();
+        CountDownLatch disconnected = new CountDownLatch(1);
+        CountDownLatch late = new CountDownLatch(1);
+
+        dispatcher.dispatch("chatMessage", client, () -> { });
+        dispatcher.dispatchDisconnect(client, disconnected::countDown);
+        assertThat(disconnected.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+
+        dispatcher.dispatch("chatMessage", client, late::countDown);
+
+        assertThat(late.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("socketio.dispatch.lanes").gauge().value()).isZero();
+    }
+}
@@ -1,23 +1,29 @@
 package com.ktb.chatapp.websocket.socketio.handler;
 
+import com.corundumstudio.socketio.AckRequest;
 import com.corundumstudio.socketio.SocketIOClient;
-import com.corundumstudio.socketio.SocketIOServer;
 import com.ktb.chatapp.dto.ChatMessageRequest;
-import com.ktb.chatapp.model.Room;
-import com.ktb.chatapp.model.User;
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.repository.FileRepository;
-import com.ktb.chatapp.repository.MessageRepository;
-import com.ktb.chatapp.repository.RoomRepository;
-import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.service.*;
+import com.ktb.chatapp.service.cache.CachedRoom;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import com.ktb.chatapp.service.message.MessageDedupStore;
+import com.ktb.chatapp.service.message.MessagePersistencePipeline;
 import com.ktb.chatapp.util.BannedWordChecker;
+import com.ktb.chatapp.websocket.socketio.RoomBroadcaster;
 import com.ktb.chatapp.websocket.socketio.SocketUser;
 import com.ktb.chatapp.websocket.socketio.ai.AiService;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.ktb.chatapp.websocket.socketio.dispatch.RoomOrderedExecutor;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.ERROR;
+import static com.ktb.chatapp.websocket.socketio.SocketIOEvents.MESSAGE;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -33,17 +40,17 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ChatMessageHandlerTest {
 
-    @Mock private SocketIOServer socketIOServer;
-    @Mock private MessageRepository messageRepository;
-    @Mock private RoomRepository roomRepository;
-    @Mock private UserRepository userRepository;
+    @Mock private RoomBroadcaster roomBroadcaster;
+    @Mock private RoomOrderedExecutor roomOrderedExecutor;
+    @Mock private MessagePersistencePipeline messagePersistencePipeline;
+    @Mock private NearCache nearCache;
     @Mock private FileRepository fileRepository;
     @Mock private AiService aiService;
     @Mock private SessionService sessionService;
     @Mock private BannedWordChecker bannedWordChecker;
-    @Mock private RateLimitService rateLimitService;
-    @Mock private MeterRegistry meterRegistry;
-    @Mock private MessageHistoryStore messageHistoryStore;
+    private final ChatMessageMetrics metrics = new ChatMessageMetrics(new SimpleMeterRegistry());
+    @Mock private MessageHistoryWriter messageHistoryWriter;
+    @Mock private MessageDedupStore messageDedupStore;
 
     private ChatMessageHandler handler;
 
@@ -51,17 +58,17 @@ class ChatMessageHandlerTest {
     void setUp() {
         handler =
                 new ChatMessageHandler(
-                        socketIOServer,
-                        messageRepository,
-                        roomRepository,
-                        userRepository,
+                        roomBroadcaster,
+                        roomOrderedExecutor,
+                        messagePersistencePipeline,
+                        nearCache,
                         fileRepository,
                         aiService,
                         sessionService,
                         bannedWordChecker,
-                        rateLimitService,
-                        meterRegistry,
-                        messageHistoryStore);
+                        metrics,
+                        messageHistoryWriter,
+                        messageDedupStore);
     }
 
     @Test
@@ -74,18 +81,11 @@ class ChatMessageHandlerTest {
         when(sessionService.validateSession(socketUser.id(), socketUser.authSessionId()))
                 .thenReturn(validResult);
 
-        RateLimitCheckResult allowedResult = RateLimitCheckResult.allowed(10000, 9999, 60, System.currentTimeMillis() / 1000 + 60, 60);
-        when(rateLimitService.checkRateLimit(eq(socketUser.id()), anyInt(), any()))
-                .thenReturn(allowedResult);
+        CachedUser user = new CachedUser("user-1", "tester", "tester@example.com", null);
+        when(nearCache.findUser("user-1")).thenReturn(Optional.of(user));
 
-        User user = new User();
-        user.setId("user-1");
-        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
-
-        Room room = new Room();
-        room.setId("room-1");
-        room.setParticipantIds(new HashSet<>(java.util.List.of("user-1")));
-        when(roomRepository.findById("room-1")).thenReturn(Optional.of(room));
+        CachedRoom room = new CachedRoom("room-1", Set.of("user-1"), false);
+        when(nearCache.findRoom("room-1")).thenReturn(Optional.of(room));
 
         ChatMessageRequest request =
                 ChatMessageRequest.builder()
@@ -96,13 +96,173 @@ class ChatMessageHandlerTest {
 
         when(bannedWordChecker.containsBannedWord("bad word")).thenReturn(true);
 
-        handler.handleChatMessage(client, request);
+        handler.handleChatMessage(client, request, mock(AckRequest.class));
 
         ArgumentCaptor<Map<String, String>> payloadCaptor = ArgumentCaptor.forClass(Map.class);
         verify(client).sendEvent(eq(ERROR), payloadCaptor.capture());
         Map<String, String> payload = payloadCaptor.getValue();
         org.junit.jupiter.api.Assertions.assertEquals("MESSAGE_REJECTED", payload.get("code"));
-        verifyNoInteractions(messageRepository);
-        verify(socketIOServer, never()).getRoomOperations(any());
+        verifyNoInteractions(messagePersistencePipeline);
+        verify(roomBroadcaster, never()).broadcast(any(), any(), any());
+    }
+
+    @Test
+    void handleChatMessage_retryWithSameClientKeyReturnsExistingMessage() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        SocketUser socketUser = new SocketUser("user-1", "tester", "session-1", "socket-1");
+        when(client.get("user")).thenReturn(socketUser);
+        when(sessionService.validateSession(socketUser.id(), socketUser.authSessionId()))
+                .thenReturn(SessionValidationResult.valid(null));
+        when(nearCache.findUser("user-1"))
+                .thenReturn(Optional.of(new CachedUser("user-1", "tester", "tester@example.com", null)));
+        when(nearCache.findRoom("room-1"))
+                .thenReturn(Optional.of(new CachedRoom("room-1", Set.of("user-1"), false)));
+
+        MessageResponse existing = MessageResponse.builder().id("msg-1").roomId("room-1").content("hello").build();
+        when(messageDedupStore.claim("room-1", "user-1", "key-1"))
+                .thenReturn(new MessageDedupStore.Claim(MessageDedupStore.Claim.State.COMPLETED, existing));
+
+        ChatMessageRequest request =
+                ChatMessageRequest.builder()
+                        .room("room-1")
+                        .type("text")
+                        .content("hello")
+                        .clientMessageKey("key-1")
+                        .build();
+
+        AckRequest ackRequest = mock(AckRequest.class);
+        when(ackRequest.isAckRequested()).thenReturn(true);
+
+        handler.handleChatMessage(client, request, ackRequest);
+
+        verify(client).sendEvent(MESSAGE, existing);
+        verify(ackRequest).sendAckData(Map.of("ok", true, "_id", "msg-1", "timestamp", 0L, "duplicate", true));
+        verifyNoInteractions(roomOrderedExecutor, messagePersistencePipeline, messageHistoryWriter, roomBroadcaster);
+    }
+
+    @Test
+    void handleChatMessage_retryWhileFirstSendIsPendingIsNotAcknowledgedAsSent() {
+        SocketIOClient client = stubSender();
+        when(messageDedupStore.claim("room-1", "user-1", "key-1"))
+                .thenReturn(new MessageDedupStore.Claim(MessageDedupStore.Claim.State.PENDING, null));
+
+        AckRequest ackRequest = mock(AckRequest.class);
+        when(ackRequest.isAckRequested()).thenReturn(true);
+
+        handler.handleChatMessage(client, keyedRequest(), ackRequest);
+
+        verify(ackRequest).sendAckData(Map.of("ok", false, "code", "MESSAGE_PENDING", "duplicate", true));
+        verifyNoInteractions(roomOrderedExecutor, messagePersistencePipeline, roomBroadcaster);
+    }
+
+    @Test
+    void handleChatMessage_releasesClaimWhenQueuedWriteFailsLater() {
+        SocketIOClient client = stubSender();
+        when(messageDedupStore.claim("room-1", "user-1", "key-1"))
+                .thenReturn(new MessageDedupStore.Claim(MessageDedupStore.Claim.State.CLAIMED, null));
+        when(roomOrderedExecutor.call(eq("room-1"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        CompletableFuture<Message> persisted = new CompletableFuture<>();
+        when(messagePersistencePipeline.enqueue(any())).thenReturn(persisted);
+        when(messagePersistencePipeline.getAckMode()).thenReturn(MessagePersistencePipeline.AckMode.ENQUEUE);
+
+        handler.handleChatMessage(client, keyedRequest(), mock(AckRequest.class));
+
+        // ENQUEUE 모드: 기록 전에 응답했으므로 결과가 나올 때까지 선점을 유지한다
+        verify(messageDedupStore, never()).complete(any(), any(), any(), any());
+        persisted.completeExceptionally(new IllegalStateException("insert failed"));
+        verify(messageDedupStore, timeout(1000)).release("room-1", "user-1", "key-1");
+        verify(messageDedupStore, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    void handleChatMessage_keepsClaimWhenDurableAckTimesOutAndSettlesItFromTheWrite() {
+        SocketIOClient client = stubSender();
+        when(messageDedupStore.claim("room-1", "user-1", "key-1"))
+                .thenReturn(new MessageDedupStore.Claim(MessageDedupStore.Claim.State.CLAIMED, null));
+        when(roomOrderedExecutor.call(eq("room-1"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        CompletableFuture<Message> persisted = new CompletableFuture<>();
+        when(messagePersistencePipeline.enqueue(any())).thenReturn(persisted);
+        doThrow(new IllegalStateException("메시지 저장에 실패했습니다.", new TimeoutException()))
+                .when(messagePersistencePipeline).awaitAck(persisted);
+
+        handler.handleChatMessage(client, keyedRequest(), mock(AckRequest.class));
+
+        // 대기 시간 초과 뒤에도 기록은 끝날 수 있으므로 재시도가 다시 저장하지 않도록 선점을 유지한다
+        verify(client).sendEvent(eq(ERROR), any(Map.class));
+        verify(messageDedupStore, after(100).never()).release(any(), any(), any());
+        persisted.complete(new Message());
+        verify(messageDedupStore, timeout(1000)).complete(eq("room-1"), eq("user-1"), eq("key-1"), any());
+        verify(messageDedupStore, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void handleChatMessage_keepsClaimWhenRoomLaneTimesOut() {
+        SocketIOClient client = stubSender();
+        when(messageDedupStore.claim("room-1", "user-1", "key-1"))
+                .thenReturn(new MessageDedupStore.Claim(MessageDedupStore.Claim.State.CLAIMED, null));
+        when(roomOrderedExecutor.call(eq("room-1"), any()))
+                .thenThrow(new IllegalStateException("방 작업 대기 시간이 초과되었습니다.", new TimeoutException()));
+
+        handler.handleChatMessage(client, keyedRequest(), mock(AckRequest.class));
+
+        verify(client).sendEvent(eq(ERROR), any(Map.class));
+        verify(messageDedupStore, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void handleChatMessage_durableModeBroadcastsOnlyAfterWriteSucceeds() {
+        SocketIOClient client = stubSender();
+        when(roomOrderedExecutor.call(eq("room-1"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        CompletableFuture<Message> first = new CompletableFuture<>();
+        CompletableFuture<Message> second = new CompletableFuture<>();
+        when(messagePersistencePipeline.enqueue(any())).thenReturn(first, second);
+        when(messagePersistencePipeline.getAckMode()).thenReturn(MessagePersistencePipeline.AckMode.DURABLE);
+
+        handler.handleChatMessage(client, textRequest("first"), mock(AckRequest.class));
+        handler.handleChatMessage(client, textRequest("second"), mock(AckRequest.class));
+        verify(roomBroadcaster, never()).broadcast(any(), any(), any());
+
+        // 뒤 메시지가 먼저 기록되어도 앞 메시지의 결과를 기다린 뒤 나간다
+        second.complete(new Message());
+        verify(roomBroadcaster, after(100).never()).broadcast(any(), any(), any());
+
+        // 기록에 실패한 메시지는 방에 보이지 않는다
+        first.completeExceptionally(new IllegalStateException("insert failed"));
+        ArgumentCaptor<MessageResponse> broadcastCaptor = ArgumentCaptor.forClass(MessageResponse.class);
+        verify(roomBroadcaster, timeout(1000)).broadcast(eq("room-1"), eq(MESSAGE), broadcastCaptor.capture());
+        org.junit.jupiter.api.Assertions.assertEquals("second", broadcastCaptor.getValue().getContent());
+    }
+
+    private SocketIOClient stubSender() {
+        SocketIOClient client = mock(SocketIOClient.class);
+        SocketUser socketUser = new SocketUser("user-1", "tester", "session-1", "socket-1");
+        when(client.get("user")).thenReturn(socketUser);
+        when(sessionService.validateSession(socketUser.id(), socketUser.authSessionId()))
+                .thenReturn(SessionValidationResult.valid(null));
+        when(nearCache.findUser("user-1"))
+                .thenReturn(Optional.of(new CachedUser("user-1", "tester", "tester@example.com", null)));
+        when(nearCache.findRoom("room-1"))
+                .thenReturn(Optional.of(new CachedRoom("room-1", Set.of("user-1"), false)));
+        return client;
+    }
+
+    private static ChatMessageRequest textRequest(String content) {
+        return ChatMessageRequest.builder()
+                .room("room-1")
+                .type("text")
+                .content(content)
+                .build();
+    }
+
+    private static ChatMessageRequest keyedRequest() {
+        return ChatMessageRequest.builder()
+                .room("room-1")
+                .type("text")
+                .content("hello")
+                .clientMessageKey("key-1")
+                .build();
     }
 }
@@ -0,0 +1,97 @@
+package com.ktb.chatapp.websocket.socketio.handler;
+
+import com.ktb.chatapp.dto.MessageResponse;
+import com.ktb.chatapp.model.Message;
+import com.ktb.chatapp.model.MessageType;
+import com.ktb.chatapp.repository.FileRepository;
+import com.ktb.chatapp.repository.MessageRepository;
+import com.ktb.chatapp.service.HistoryPage;
+import com.ktb.chatapp.service.MessageHistoryStore;
+import com.ktb.chatapp.service.RecentMessageCache;
+import com.ktb.chatapp.service.cache.CachedUser;
+import com.ktb.chatapp.service.cache.NearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageHistoryBackfillTest {
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final MessageHistoryStore messageHistoryStore = mock(MessageHistoryStore.class);
+    private final RecentMessageCache recentMessageCache = mock(RecentMessageCache.class);
+    private final NearCache nearCache = mock(NearCache.class);
+    private final MessageHistoryBackfill backfill = new MessageHistoryBackfill(
+            messageRepository,
+            new MessageResponseMapper(mock(FileRepository.class)),
+            messageHistoryStore,
+            recentMessageCache,
+            nearCache,
+            new SimpleMeterRegistry(),
+            50);
+
+    private static Message message(String id, LocalDateTime timestamp) {
+        return Message.builder()
+                .id(id)
+                .roomId("room")
+                .senderId("user-1")
+                .content("hello")
+                .type(MessageType.text)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @Test
+    void backfillIfNeeded_skipsShortRoomThatIsAlreadySeeded() {
+        HistoryPage cached = new HistoryPage(List.of(new MessageResponse()), true, false, 1L);
+
+        assertThat(backfill.backfillIfNeeded("room", cached)).isFalse();
+        verify(messageRepository, never()).findLatestBefore(anyString(), any(), any());
+    }
+
+    @Test
+    void backfillIfNeeded_marksEmptyRoomAsCompleteSoLaterLoadsSkipMongo() {
+        when(messageRepository.findLatestBefore(eq("room"), any(), any())).thenReturn(List.of());
+        when(messageHistoryStore.seed("room", List.of(), true)).thenReturn(true);
+
+        assertThat(backfill.backfillIfNeeded("room", HistoryPage.empty())).isTrue();
+        verify(messageHistoryStore).seed("room", List.of(), true);
+        verify(recentMessageCache).invalidate("room");
+
+        // 이후 조회는 full 마커만 있는 빈 이력을 읽는다
+        assertThat(backfill.backfillIfNeeded("room", new HistoryPage(List.of(), true, true, 1L))).isFalse();
+        verify(messageRepository).findLatestBefore(eq("room"), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void backfillIfNeeded_seedsLatestWindowOldestFirstWithCachedSender() {
+        LocalDateTime now = LocalDateTime.now();
+        when(messageRepository.findLatestBefore(eq("room"), any(), any()))
+                .thenReturn(List.of(message("m2", now.minusMinutes(1)), message("m1", now.minusMinutes(2))));
+        when(nearCache.findUsers(any()))
+                .thenReturn(Map.of("user-1", new CachedUser("user-1", "tester", "tester@example.com", "profile-key")));
+        when(messageHistoryStore.seed(eq("room"), anyList(), anyBoolean())).thenReturn(true);
+
+        assertThat(backfill.backfillIfNeeded("room", HistoryPage.empty())).isTrue();
+
+        // window(50)보다 적게 읽혔으므로 방 전체가 채워진 것으로 표시한다
+        ArgumentCaptor<List<MessageResponse>> seeded = ArgumentCaptor.forClass(List.class);
+        verify(messageHistoryStore).seed(eq("room"), seeded.capture(), eq(true));
+        assertThat(seeded.getValue()).extracting(MessageResponse::getId).containsExactly("m1", "m2");
+        assertThat(seeded.getValue().getFirst().getSender().getName()).isEqualTo("tester");
+    }
+}
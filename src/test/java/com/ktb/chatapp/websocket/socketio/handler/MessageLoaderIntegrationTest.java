@@ -11,6 +11,7 @@ import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.UserRepository;
 import com.ktb.chatapp.service.MessageHistoryStore;
 import com.ktb.chatapp.service.MessageReadStatusService;
+import com.ktb.chatapp.service.RecentMessageCache;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -58,6 +59,12 @@ class MessageLoaderIntegrationTest {
     @MockitoSpyBean
     private MessageResponseMapper messageResponseMapper;
 
+    @Autowired
+    private MessageHistoryBackfill messageHistoryBackfill;
+
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
     @Autowired
     private ImageUtils imageUtils;
 
@@ -79,6 +86,8 @@ class MessageLoaderIntegrationTest {
                 messageResponseMapper,
                 messageReadStatusService,
                 messageHistoryStore,
+                messageHistoryBackfill,
+                recentMessageCache,
                 imageUtils
         );
 
@@ -2,16 +2,19 @@ package com.ktb.chatapp.websocket.socketio.handler;
 
 import com.ktb.chatapp.dto.FetchMessagesRequest;
 import com.ktb.chatapp.dto.FetchMessagesResponse;
+import com.ktb.chatapp.dto.MessageResponse;
 import com.ktb.chatapp.model.Message;
 import com.ktb.chatapp.model.User;
 import com.ktb.chatapp.repository.FileRepository;
 import com.ktb.chatapp.repository.MessageRepository;
 import com.ktb.chatapp.repository.UserRepository;
+import com.ktb.chatapp.service.HistoryPage;
 import com.ktb.chatapp.service.MessageHistoryStore;
 import com.ktb.chatapp.service.MessageReadStatusService;
+import com.ktb.chatapp.service.RecentMessageCache;
 import com.ktb.chatapp.util.image.ImageUtils;
 import net.datafaker.Faker;
-import org.jetbrains.annotations.NotNull;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,12 +22,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
-import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -35,24 +35,30 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class MessageLoaderTest {
 
-    @Autowired
+    @Mock
     private MessageRepository messageRepository;
 
-    @Autowired
+    @Mock
     private UserRepository userRepository;
 
     private MessageResponseMapper messageResponseMapper;
 
-    @Autowired
+    @Mock
     private FileRepository fileRepository;
 
-    @MockitoSpyBean
+    @Mock
     private MessageReadStatusService messageReadStatusService;
 
-    @MockitoSpyBean
+    @Mock
     private MessageHistoryStore messageHistoryStore;
 
-    @Autowired
+    @Mock
+    private MessageHistoryBackfill messageHistoryBackfill;
+
+    @Mock
+    private RecentMessageCache recentMessageCache;
+
+    @Mock
     private ImageUtils imageUtils;
 
     @InjectMocks
@@ -69,6 +75,7 @@ class MessageLoaderTest {
         faker = new Faker();
         roomId = faker.internet().uuid();
         userId = faker.internet().uuid();
+        messageResponseMapper = new MessageResponseMapper(fileRepository);
 
         messageLoader = new MessageLoader(
                 messageRepository,
@@ -76,6 +83,8 @@ class MessageLoaderTest {
                 messageResponseMapper,
                 messageReadStatusService,
                 messageHistoryStore,
+                messageHistoryBackfill,
+                recentMessageCache,
                 imageUtils
         );
         
@@ -97,6 +106,8 @@ class MessageLoaderTest {
         lenient().when(userRepository.findAllById(anySet()))
                 .thenReturn(List.of(testUser));
         lenient().doNothing().when(messageReadStatusService).updateReadStatus(anyList(), anyString());
+        lenient().when(messageHistoryStore.getLast(anyString(), anyInt())).thenReturn(HistoryPage.empty());
+        lenient().when(messageHistoryStore.getBefore(anyString(), anyLong(), anyInt())).thenReturn(HistoryPage.empty());
     }
     
     private Message createMessage(String id, LocalDateTime timestamp) {
@@ -113,16 +124,14 @@ class MessageLoaderTest {
     @Test
     @DisplayName("loadMessages: 내림차순 조회 후 오름차순 재정렬")
     void loadMessages_shouldReturnAscendingOrderAfterReversing() {
-        // Given: testMessages[0~29] (50시간 전 ~ 21시간 전) - 오름차순 상태
-        List<Message> first30Messages = testMessages.subList(0, 30);
+        // Given: testMessages[0~30] (50시간 전 ~ 20시간 전) - 오름차순 상태
+        // limit + 1건이 조회되면 hasMore
+        List<Message> first31Messages = testMessages.subList(0, 31);
         
         // DB는 DESC 정렬로 반환한다고 가정 (최신 것 먼저)
-        // [21시간 전, 22시간 전, ..., 50시간 전]
-        var messagePage = getMessagePage(first30Messages);
-        
-        when(messageRepository.findByRoomIdAndIsDeletedAndTimestampBefore(
-                eq(roomId), eq(false), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(messagePage);
+        // [20시간 전, 21시간 전, ..., 50시간 전]
+        when(messageRepository.findLatestBefore(eq(roomId), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(first31Messages.reversed());
         
         // When: 메시지 로드
         FetchMessagesRequest req = new FetchMessagesRequest(roomId, 30, null);
@@ -137,14 +146,6 @@ class MessageLoaderTest {
         verifyAscending(result);
     }
     
-    private static @NotNull Page<Message> getMessagePage(List<Message> first30Messages) {
-        List<Message> messages = new ArrayList<>(first30Messages.reversed());
-        
-        Pageable pageable = PageRequest.of(0, 30, Sort.by("timestamp").descending());
-        Page<Message> messagePage = new PageImpl<>(messages, pageable, 50);
-        return messagePage;
-    }
-    
     @Test
     @DisplayName("loadInitialMessages: 내림차순 조회 후 오름차순 재정렬")
     void loadInitialMessages_shouldReturnAscendingOrderAfterReversing() {
@@ -153,11 +154,8 @@ class MessageLoaderTest {
         
         // DB는 DESC 정렬로 반환 (최신 것부터)
         // [1시간 전, 2시간 전, ..., 30시간 전]
-        Page<Message> messagePage = getMessagePage(last30Messages);
-        
-        when(messageRepository.findByRoomIdAndIsDeletedAndTimestampBefore(
-                eq(roomId), eq(false), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(messagePage);
+        when(messageRepository.findLatestBefore(eq(roomId), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(last30Messages.reversed());
         
         // When: 초기 메시지 로드
         FetchMessagesRequest req = new FetchMessagesRequest(roomId, 30, null);
@@ -165,6 +163,7 @@ class MessageLoaderTest {
         
         // Then: 결과는 오름차순으로 정렬되어야 함
         assertThat(result.getMessages()).hasSize(30);
+        assertThat(result.isHasMore()).isFalse();
         
         // 시간순 정렬 확인 (오름차순: 오래된 것 → 최신 것)
         // [30시간 전, 29시간 전, ..., 1시간 전]
@@ -182,8 +181,7 @@ class MessageLoaderTest {
     @Test
     @DisplayName("loadInitialMessages: 에러 시 빈 응답")
     void loadInitialMessages_shouldReturnEmptyOnError() {
-        when(messageRepository.findByRoomIdAndIsDeletedAndTimestampBefore(
-                any(), anyBoolean(), any(LocalDateTime.class), any(Pageable.class)))
+        when(messageRepository.findLatestBefore(any(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenThrow(new RuntimeException("DB error"));
         
         FetchMessagesRequest req = new FetchMessagesRequest(roomId, 30, null);
@@ -192,4 +190,63 @@ class MessageLoaderTest {
         assertThat(result.getMessages()).isEmpty();
         assertThat(result.isHasMore()).isFalse();
     }
+
+    private MessageResponse cachedResponse(Message message) {
+        return messageResponseMapper.mapToMessageResponse(message, null, null);
+    }
+
+    @Test
+    @DisplayName("loadMessages: Redis에 모자란 오래된 쪽만 MongoDB 키셋 커서로 채운다")
+    void loadMessages_shouldFillMissingTailFromDbAfterRedisPage() {
+        // Given: Redis에는 오래된 쪽이 잘린(tail) 최신 10건만 있다
+        List<Message> messages = IntStream.range(0, 50)
+                .mapToObj(i -> createMessage(new ObjectId().toHexString(), LocalDateTime.now().minusHours(50 - i)))
+                .toList();
+        List<MessageResponse> redisPage = messages.subList(40, 50).stream().map(this::cachedResponse).toList();
+        when(messageHistoryStore.getLast(roomId, 31)).thenReturn(new HistoryPage(redisPage, true, false, 7L));
+        // 나머지 20건 + hasMore 판단용 1건을 Redis의 가장 오래된 메시지 이전부터 읽는다
+        when(messageRepository.findLatestBeforeKey(
+                eq(roomId), any(LocalDateTime.class), eq(new ObjectId(redisPage.getFirst().getId())),
+                eq(PageRequest.of(0, 21))))
+                .thenReturn(messages.subList(19, 40).reversed());
+
+        FetchMessagesResponse result = messageLoader.loadMessages(new FetchMessagesRequest(roomId, 30, null), userId);
+
+        assertThat(result.getMessages()).extracting(MessageResponse::getId)
+                .containsExactlyElementsOf(messages.subList(20, 50).stream().map(Message::getId).toList());
+        assertThat(result.isHasMore()).isTrue();
+        verifyAscending(result);
+        // L1은 Redis 페이지를 읽은 시점의 이력 버전으로 채운다
+        verify(recentMessageCache).seed(roomId, Long.MAX_VALUE, redisPage, 7L);
+    }
+
+    @Test
+    @DisplayName("loadMessages: 방 전체를 담은 Redis 이력이면 MongoDB 없이 hasMore=false")
+    void loadMessages_shouldNotQueryDbWhenRedisHistoryIsComplete() {
+        List<MessageResponse> redisPage = testMessages.subList(45, 50).stream().map(this::cachedResponse).toList();
+        when(messageHistoryStore.getBefore(roomId, 1_000L, 31)).thenReturn(new HistoryPage(redisPage, true, true, 7L));
+
+        FetchMessagesResponse result = messageLoader.loadMessages(new FetchMessagesRequest(roomId, 30, 1_000L), userId);
+
+        assertThat(result.getMessages()).hasSize(5);
+        assertThat(result.isHasMore()).isFalse();
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    @DisplayName("loadMessages: seed 마커가 없는 Redis 이력은 쓰지 않고 MongoDB에서 읽는다")
+    void loadMessages_shouldIgnoreUnseededRedisHistory() {
+        // 마커 없이 쌓인 이력에는 AI/시스템 메시지가 빠져 있을 수 있다
+        List<MessageResponse> redisPage = testMessages.subList(40, 50).stream().map(this::cachedResponse).toList();
+        when(messageHistoryStore.getBefore(roomId, 1_000L, 31)).thenReturn(new HistoryPage(redisPage, false, false, 0L));
+        when(messageRepository.findLatestBefore(eq(roomId), any(LocalDateTime.class), eq(PageRequest.of(0, 31))))
+                .thenReturn(testMessages.subList(19, 50).reversed());
+
+        FetchMessagesResponse result = messageLoader.loadMessages(new FetchMessagesRequest(roomId, 30, 1_000L), userId);
+
+        assertThat(result.getMessages()).extracting(MessageResponse::getId)
+                .containsExactlyElementsOf(testMessages.subList(20, 50).stream().map(Message::getId).toList());
+        assertThat(result.isHasMore()).isTrue();
+        verify(recentMessageCache).seed(roomId, 1_000L, List.of(), 0L);
+    }
 }
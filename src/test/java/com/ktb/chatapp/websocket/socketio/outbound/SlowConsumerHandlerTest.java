@@ -0,0 +1,101 @@
+package com.ktb.chatapp.websocket.socketio.outbound;
+
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.messages.OutPacketMessage;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.protocol.PacketType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmbeddedChannel unwritableChannel(SlowConsumerHandler handler) {
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        channel.write(Unpooled.wrappedBuffer(new byte[64]));
+        assertThat(channel.isWritable()).isFalse();
+        return channel;
+    }
+
+    private Packet event(String name) {
+        Packet packet = new Packet(PacketType.MESSAGE);
+        packet.setSubType(PacketType.EVENT);
+        packet.setName(name);
+        return packet;
+    }
+
+    private OutPacketMessage outPacket(Queue<Packet> queue) {
+        ClientHead clientHead = mock(ClientHead.class);
+        when(clientHead.getSessionId()).thenReturn(UUID.randomUUID());
+        when(clientHead.getPacketsQueue(Transport.WEBSOCKET)).thenReturn(queue);
+        return new OutPacketMessage(clientHead, Transport.WEBSOCKET);
+    }
+
+    @Test
+    void write_dropsNonCriticalEventsWhileUnwritable() {
+        SlowConsumerHandler handler = new SlowConsumerHandler(
+                meterRegistry, Set.of("aiMessageChunk", "messagesRead"), 1 << 20, 100);
+        EmbeddedChannel channel = unwritableChannel(handler);
+        Queue<Packet> queue = new ConcurrentLinkedQueue<>();
+        queue.add(event("aiMessageChunk"));
+        queue.add(event("message"));
+        queue.add(event("messagesRead"));
+
+        channel.write(outPacket(queue));
+
+        assertThat(queue).extracting(Packet::getName).containsExactly("message");
+        assertThat(handler.getThrottledClients()).isEqualTo(1);
+        assertThat(meterRegistry.get("socketio.outbound.dropped").tag("event", "aiMessageChunk")
+                .counter().count()).isEqualTo(1);
+
+        channel.flush();
+        assertThat(channel.isWritable()).isTrue();
+        assertThat(handler.getThrottledClients()).isZero();
+    }
+
+    @Test
+    void write_countsCurrentQueueInsteadOfAccumulatingAcrossWrites() {
+        SlowConsumerHandler handler = new SlowConsumerHandler(meterRegistry, Set.of(), 1 << 20, 2);
+        EmbeddedChannel channel = unwritableChannel(handler);
+        Queue<Packet> queue = new ConcurrentLinkedQueue<>();
+        queue.add(event("message"));
+        queue.add(event("message"));
+
+        // 같은 큐를 가리키는 write가 여러 번 와도 대기 이벤트는 2건이다
+        for (int i = 0; i < 3; i++) {
+            channel.write(outPacket(queue));
+        }
+
+        assertThat(channel.isOpen()).isTrue();
+        assertThat(queue).hasSize(2);
+    }
+
+    @Test
+    void write_disconnectsPastHardLimit() {
+        SlowConsumerHandler handler = new SlowConsumerHandler(meterRegistry, Set.of(), 1 << 20, 1);
+        EmbeddedChannel channel = unwritableChannel(handler);
+        Queue<Packet> queue = new ConcurrentLinkedQueue<>();
+        queue.add(event("message"));
+        queue.add(event("message"));
+
+        channel.write(outPacket(queue));
+
+        assertThat(channel.isOpen()).isFalse();
+        assertThat(queue).isEmpty();
+        assertThat(meterRegistry.get("socketio.outbound.disconnects").counter().count()).isEqualTo(1);
+    }
+}